@@ -0,0 +1,127 @@
+package io.quarkus.bot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates inputs looking like the ones of the Quarkus CI, at any scale.
+ * <p>
+ * Generation is seeded so that all the runs of a benchmark get the same inputs.
+ */
+public final class BenchmarkData {
+
+    private static final String[] JDKS = { "JDK 17", "JDK 21", "JDK 23" };
+    private static final String[] FAMILIES = { "JVM Tests - ", "Maven Tests - ", "Gradle Tests - ", "Devtools Tests - ",
+            "Kubernetes Tests - ", "Native Tests - " };
+    private static final String[] NATIVE_GROUPS = { "Amazon", "Cache", "Data", "gRPC", "HTTP", "Main", "Messaging", "Misc",
+            "Security", "Spring", "Virtual Thread - Main" };
+
+    public static final String MAINTAINED_COMMENT_MARKER = "<!-- Quarkus-Bot/maintained-comment -->";
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Job names spread over the job families of the Quarkus CI, in a random order.
+     */
+    public static List<String> jobNames(int jobs) {
+        Random random = new Random(42);
+        List<String> jobNames = new ArrayList<>(jobs);
+
+        jobNames.add("Initial JDK 17 Build");
+        if (jobs > 1) {
+            jobNames.add("Calculate Test Jobs");
+        }
+        for (int i = jobNames.size(); i < jobs; i++) {
+            String family = FAMILIES[random.nextInt(FAMILIES.length)];
+            String suffix = family.startsWith("Native")
+                    ? NATIVE_GROUPS[random.nextInt(NATIVE_GROUPS.length)] + " " + i
+                    : JDKS[random.nextInt(JDKS.length)] + " - " + i;
+            jobNames.add(family + suffix + (random.nextInt(5) == 0 ? " Windows" : ""));
+        }
+
+        Collections.shuffle(jobNames, random);
+
+        return jobNames;
+    }
+
+    public static String buildScanLink(String jobName) {
+        return "https://ge.quarkus.io/s/" + Integer.toHexString(jobName.hashCode()) + jobName.length();
+    }
+
+    /**
+     * A build-metadata.json as generated by the Quarkus CI.
+     */
+    public static String buildMetadataJson(List<String> jobNames) {
+        StringBuilder json = new StringBuilder(jobNames.size() * 128).append("{\n  \"prNumber\": 36961,\n  \"builds\": [\n");
+
+        for (int i = 0; i < jobNames.size(); i++) {
+            json.append("    {\n      \"jobName\": \"").append(jobNames.get(i)).append("\",\n")
+                    .append("      \"status\": \"").append(i % 7 == 0 ? "failure" : "success").append("\",\n")
+                    .append("      \"buildFailure\": ").append(i % 7 == 0).append(",\n")
+                    .append("      \"buildScanLink\": \"").append(buildScanLink(jobNames.get(i))).append("\"\n    }")
+                    .append(i < jobNames.size() - 1 ? ",\n" : "\n");
+        }
+
+        return json.append("  ]\n}\n").toString();
+    }
+
+    /**
+     * A report comment of the Build Reporter, with the build scan column to rewrite.
+     *
+     * @param failureLines lines of failure details per job, to get multi-megabyte bodies
+     */
+    public static String reportComment(List<String> jobNames, int failureLines) {
+        StringBuilder report = new StringBuilder("### :waning_crescent_moon: Build Reporter\n\n")
+                .append("| Status | Name | Step | Failures | Logs | Raw logs | Build scan |\n")
+                .append("| :-:  | --  | --  | :-:  | :-:  | :-:  | :-:  |\n");
+
+        for (int i = 0; i < jobNames.size(); i++) {
+            report.append("| ✖ | ").append(jobNames.get(i)).append(" | `Build` | [Failures](#job-").append(i)
+                    .append(") | [Logs](https://github.com/quarkusio/quarkus/actions/runs/1/job/").append(i)
+                    .append(") | [Raw logs](https://github.com/quarkusio/quarkus/commit/raw/").append(i)
+                    .append(") | :construction: |\n");
+        }
+
+        for (int i = 0; i < jobNames.size(); i++) {
+            report.append("\n#### :x: Job ").append(i).append("\n\n```\n");
+            for (int j = 0; j < failureLines; j++) {
+                report.append("    at io.quarkus.test.junit.QuarkusTestExtension.interceptTestMethod(QuarkusTestExtension.java:")
+                        .append(j).append(")\n");
+            }
+            report.append("```\n");
+        }
+
+        report.append("\n<!-- Build-Reporter/build-scans-check-run -->\n<!-- Build-Reporter/workflow-run-id:1 -->\n");
+
+        return report.toString();
+    }
+
+    /**
+     * The bodies of the comments of a busy pull request, in ascending order. The maintained comment, containing
+     * {@link #MAINTAINED_COMMENT_MARKER}, is at the given index.
+     */
+    public static List<String> commentBodies(int comments, int maintainedCommentIndex) {
+        Random random = new Random(42);
+        List<String> bodies = new ArrayList<>(comments);
+
+        for (int i = 0; i < comments; i++) {
+            StringBuilder body = new StringBuilder();
+            int paragraphs = 1 + random.nextInt(4);
+            for (int j = 0; j < paragraphs; j++) {
+                body.append("I had a look at the failures of the previous run and they look related to the change of ")
+                        .append("`io.quarkus.deployment.steps.ClassTransformingBuildStep`, could you have a look? ")
+                        .append("See https://github.com/quarkusio/quarkus/actions/runs/").append(random.nextInt(1_000_000))
+                        .append(" for the details.\n\n");
+            }
+            if (i == maintainedCommentIndex) {
+                body.append(MAINTAINED_COMMENT_MARKER);
+            }
+            bodies.add(body.toString());
+        }
+
+        return bodies;
+    }
+}
@@ -0,0 +1,27 @@
+package io.quarkus.bot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled by default, so that the allocation rates are reported along with the
+ * timings.
+ * <p>
+ * Accepts the same options as the JMH launcher. Specifying a profiler with {@code -prof} replaces the default one.
+ */
+public class BenchmarksMain {
+
+    private static final Set<String> NO_RUN_OPTIONS = Set.of("-h", "-l", "-lp", "-lprof", "-lrf");
+
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(List.of(args));
+
+        if (!arguments.contains("-prof") && arguments.stream().noneMatch(NO_RUN_OPTIONS::contains)) {
+            arguments.add("-prof");
+            arguments.add("gc");
+        }
+
+        org.openjdk.jmh.Main.main(arguments.toArray(new String[0]));
+    }
+}
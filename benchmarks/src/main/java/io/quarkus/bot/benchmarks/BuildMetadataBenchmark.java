@@ -0,0 +1,71 @@
+package io.quarkus.bot.benchmarks;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.develocity.BuildMetadataReader;
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatuses;
+
+/**
+ * Deserialization of the build metadata into {@link BuildScanStatuses}, which includes ordering the statuses: with the
+ * data binding API and with the streaming reader used by the action.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildMetadataBenchmark {
+
+    @Param({ "40", "400", "5000" })
+    int jobs;
+
+    private ObjectMapper objectMapper;
+    private BuildMetadataReader buildMetadataReader;
+    private byte[] buildMetadata;
+    private Path buildMetadataFile;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = new ObjectMapper();
+        buildMetadataReader = new BuildMetadataReader(objectMapper.getFactory());
+        buildMetadata = BenchmarkData.buildMetadataJson(BenchmarkData.jobNames(jobs)).getBytes(StandardCharsets.UTF_8);
+        buildMetadataFile = Files.createTempFile("build-metadata", ".json");
+        Files.write(buildMetadataFile, buildMetadata);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(buildMetadataFile);
+    }
+
+    @Benchmark
+    public BuildScanStatuses dataBinding() throws IOException {
+        return objectMapper.readValue(buildMetadata, BuildScanStatuses.class);
+    }
+
+    @Benchmark
+    public BuildScanStatuses streamingReader() throws IOException {
+        return buildMetadataReader.read(List.of(buildMetadataFile));
+    }
+}
@@ -0,0 +1,62 @@
+package io.quarkus.bot.benchmarks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.bot.develocity.BuildScanLinksRewriter;
+
+/**
+ * The cost of the rewrite should grow linearly with the number of jobs and the size of the body.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildScanLinksRewriterBenchmark {
+
+    @Param({ "40", "400", "5000" })
+    int jobs;
+
+    /**
+     * Lines of failure details per job, to get multi-megabyte bodies.
+     */
+    @Param({ "0", "20" })
+    int failureLines;
+
+    private BuildScanLinksRewriter rewriter;
+    private String body;
+
+    @Setup
+    public void setup() {
+        List<String> jobNames = BenchmarkData.jobNames(jobs);
+
+        Map<String, String> buildScanLinks = new HashMap<>();
+        for (String jobName : jobNames) {
+            buildScanLinks.put(jobName, BenchmarkData.buildScanLink(jobName));
+        }
+
+        rewriter = new BuildScanLinksRewriter(buildScanLinks);
+        body = BenchmarkData.reportComment(jobNames, failureLines);
+    }
+
+    @Benchmark
+    public String rewrite() {
+        return rewriter.rewrite(body);
+    }
+}
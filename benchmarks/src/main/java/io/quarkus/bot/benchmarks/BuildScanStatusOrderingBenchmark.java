@@ -0,0 +1,66 @@
+package io.quarkus.bot.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatus;
+import io.quarkus.bot.develocity.JobOrder;
+
+/**
+ * Ordering of the statuses: computing the order keys from the rules, then sorting in the {@link TreeSet}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildScanStatusOrderingBenchmark {
+
+    @Param({ "40", "400", "5000" })
+    int jobs;
+
+    private JobOrder jobOrder;
+    private List<String> jobNames;
+    private List<BuildScanStatus> statuses;
+
+    @Setup
+    public void setup() {
+        jobOrder = JobOrder.defaults();
+        jobNames = BenchmarkData.jobNames(jobs);
+        statuses = new ArrayList<>(jobs);
+        for (String jobName : jobNames) {
+            BuildScanStatus status = new BuildScanStatus();
+            status.setJobName(jobName, jobOrder);
+            status.buildScanLink = BenchmarkData.buildScanLink(jobName);
+            statuses.add(status);
+        }
+    }
+
+    @Benchmark
+    public void orderKeys(Blackhole blackhole) {
+        for (String jobName : jobNames) {
+            blackhole.consume(jobOrder.getOrder(jobName));
+        }
+    }
+
+    @Benchmark
+    public TreeSet<BuildScanStatus> sort() {
+        return new TreeSet<>(statuses);
+    }
+}
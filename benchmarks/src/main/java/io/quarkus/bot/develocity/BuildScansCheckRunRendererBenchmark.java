@@ -0,0 +1,61 @@
+package io.quarkus.bot.develocity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.quarkus.bot.benchmarks.BenchmarkData;
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatus;
+
+/**
+ * Rendering of the build scans table of the check runs, including the pagination for large matrices.
+ * <p>
+ * Lives in the package of the renderer as the renderer is not part of the public API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BuildScansCheckRunRendererBenchmark {
+
+    @Param({ "40", "400", "5000" })
+    int jobs;
+
+    private BuildScansCheckRunRenderer renderer;
+    private TreeSet<BuildScanStatus> statuses;
+
+    @Setup
+    public void setup() {
+        renderer = new BuildScansCheckRunRenderer();
+
+        List<BuildScanStatus> builds = new ArrayList<>(jobs);
+        for (String jobName : BenchmarkData.jobNames(jobs)) {
+            BuildScanStatus status = new BuildScanStatus();
+            status.setJobName(jobName);
+            status.buildFailure = jobName.hashCode() % 7 == 0;
+            status.buildScanLink = BenchmarkData.buildScanLink(jobName);
+            builds.add(status);
+        }
+        statuses = new TreeSet<>(builds);
+    }
+
+    @Benchmark
+    public List<String> render() {
+        return renderer.render(statuses);
+    }
+}
@@ -0,0 +1,155 @@
+package io.quarkus.bot.github;
+
+import static io.quarkus.bot.github.FakeGitHubConnector.response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serves the comments of pull request quarkusio/quarkus#1 from memory, through the REST and the GraphQL APIs, so that the
+ * benchmarks measure the client side of the lookups and not the network. It answers the requests sent to the
+ * {@link FakeGitHubConnector} of the tests.
+ * <p>
+ * All the responses are serialized upfront.
+ */
+public class InMemoryPullRequest implements FakeGitHubConnector.Handler {
+
+    public static final String API_URL = "https://api.github.com";
+    public static final String REPOSITORY = "quarkusio/quarkus";
+    public static final int PULL_REQUEST_NUMBER = 1;
+
+    private static final String REPOSITORY_URL = API_URL + "/repos/" + REPOSITORY;
+    private static final String COMMENTS_PATH = "/repos/" + REPOSITORY + "/issues/" + PULL_REQUEST_NUMBER + "/comments";
+    private static final int PAGE_SIZE = 100;
+    private static final byte[] NOT_FOUND = "{\"message\":\"Not Found\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, byte[]> restResponses = new HashMap<>();
+    private final Map<String, String> restLinks = new HashMap<>();
+    private final Map<String, byte[]> graphQLCommentPages = new HashMap<>();
+
+    public InMemoryPullRequest(ObjectMapper objectMapper, List<String> commentBodies) {
+        this.objectMapper = objectMapper;
+
+        try {
+            restResponses.put("/repos/" + REPOSITORY, objectMapper.writeValueAsBytes(Map.of(
+                    "id", 1,
+                    "name", "quarkus",
+                    "full_name", REPOSITORY,
+                    "owner", Map.of("login", "quarkusio", "id", 1, "type", "Organization"),
+                    "url", REPOSITORY_URL,
+                    "html_url", "https://github.com/" + REPOSITORY)));
+            restResponses.put("/repos/" + REPOSITORY + "/pulls/" + PULL_REQUEST_NUMBER, objectMapper.writeValueAsBytes(Map.of(
+                    "id", 1,
+                    "number", PULL_REQUEST_NUMBER,
+                    "state", "open",
+                    "title", "Benchmark",
+                    "url", REPOSITORY_URL + "/pulls/" + PULL_REQUEST_NUMBER,
+                    "issue_url", REPOSITORY_URL + "/issues/" + PULL_REQUEST_NUMBER)));
+
+            int pages = Math.max(1, (commentBodies.size() + PAGE_SIZE - 1) / PAGE_SIZE);
+            for (int page = 1; page <= pages; page++) {
+                List<Map<String, Object>> comments = new ArrayList<>();
+                for (int i = (page - 1) * PAGE_SIZE; i < Math.min(page * PAGE_SIZE, commentBodies.size()); i++) {
+                    comments.add(restComment(i, commentBodies.get(i)));
+                }
+                restResponses.put(COMMENTS_PATH + "?page=" + page, objectMapper.writeValueAsBytes(comments));
+                if (page < pages) {
+                    restLinks.put(COMMENTS_PATH + "?page=" + page,
+                            "<" + API_URL + COMMENTS_PATH + "?per_page=" + PAGE_SIZE + "&page=" + (page + 1) + ">; rel=\"next\"");
+                }
+            }
+
+            // GraphQL pages are requested oldest first, after a cursor which is the index of the first comment of the page
+            for (int start = 0; start < commentBodies.size() || graphQLCommentPages.isEmpty(); start += PAGE_SIZE) {
+                int end = Math.min(commentBodies.size(), start + PAGE_SIZE);
+                List<Map<String, Object>> nodes = new ArrayList<>();
+                for (int i = start; i < end; i++) {
+                    nodes.add(Map.of("id", "IC_" + i, "databaseId", i + 1, "body", commentBodies.get(i)));
+                }
+
+                Map<String, Object> pullRequest = new LinkedHashMap<>();
+                pullRequest.put("id", "PR_1");
+                pullRequest.put("comments", Map.of("nodes", nodes,
+                        "pageInfo", Map.of("hasNextPage", end < commentBodies.size(), "endCursor", String.valueOf(end))));
+
+                graphQLCommentPages.put(start == 0 ? null : String.valueOf(start),
+                        objectMapper.writeValueAsBytes(Map.of("data", Map.of("repository", Map.of("pullRequest", pullRequest)))));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public static GitHubGraphQLClient graphQLClient(FakeGitHubConnector connector, ObjectMapper objectMapper)
+            throws IOException {
+        return new GitHubGraphQLClient(connector, objectMapper, new URL(API_URL + "/graphql"), "token");
+    }
+
+    @Override
+    public GitHubConnectorResponse handle(GitHubConnectorRequest request) throws IOException {
+        String path = request.url().getPath();
+
+        if ("POST".equals(request.method()) && "/graphql".equals(path)) {
+            JsonNode variables;
+            try (InputStream body = request.body()) {
+                variables = objectMapper.readTree(body).path("variables");
+            }
+            byte[] page = graphQLCommentPages.get(variables.path("after").asText(null));
+            return page != null ? response(request, 200, Map.of(), page) : notFound(request);
+        }
+
+        if (COMMENTS_PATH.equals(path)) {
+            String key = path + "?page=" + getPage(request.url());
+            byte[] page = restResponses.get(key);
+            if (page == null) {
+                return notFound(request);
+            }
+            String link = restLinks.get(key);
+            return response(request, 200, link != null ? Map.of("Link", List.of(link)) : Map.of(), page);
+        }
+
+        byte[] body = restResponses.get(path);
+        return body != null ? response(request, 200, Map.of(), body) : notFound(request);
+    }
+
+    private static int getPage(URL url) {
+        String query = url.getQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith("page=")) {
+                    return Integer.parseInt(parameter.substring("page=".length()));
+                }
+            }
+        }
+        return 1;
+    }
+
+    private static Map<String, Object> restComment(int index, String body) {
+        return Map.of(
+                "id", index + 1,
+                "node_id", "IC_" + index,
+                "body", body,
+                "url", REPOSITORY_URL + "/issues/comments/" + (index + 1),
+                "created_at", "2024-01-01T00:00:00Z",
+                "updated_at", "2024-01-01T00:00:00Z");
+    }
+
+    private static GitHubConnectorResponse notFound(GitHubConnectorRequest request) {
+        return response(request, 404, Map.of(), NOT_FOUND);
+    }
+}
@@ -0,0 +1,84 @@
+package io.quarkus.bot.maintainonecomment;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.benchmarks.BenchmarkData;
+import io.quarkus.bot.github.FakeGitHubConnector;
+import io.quarkus.bot.github.InMemoryPullRequest;
+import io.quarkus.bot.maintainonecomment.MaintainOneCommentAction.MaintainedCommentState;
+import io.quarkus.bot.maintainonecomment.MaintainedCommentsApi.MaintainedComment;
+
+/**
+ * Lookup of the maintained comment among the comments of a pull request, served from memory: this measures the pagination,
+ * the deserialization of the comments and the marker scan.
+ * <p>
+ * Both APIs list the comments oldest first and the lookups stop at the first match, so the position of the maintained
+ * comment matters. Lives in the package of the lookups as they are not part of the public API.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MaintainedCommentLookupBenchmark {
+
+    @Param({ "10", "200", "2000" })
+    int comments;
+
+    @Param({ "oldest", "newest" })
+    String maintainedComment;
+
+    @Param({ "rest", "graphql" })
+    String api;
+
+    private MaintainedCommentsApi maintainedCommentsApi;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        FakeGitHubConnector connector = new FakeGitHubConnector(new InMemoryPullRequest(objectMapper,
+                BenchmarkData.commentBodies(comments, "oldest".equals(maintainedComment) ? 0 : comments - 1)));
+
+        if ("graphql".equals(api)) {
+            maintainedCommentsApi = new GraphQLMaintainedCommentsApi(InMemoryPullRequest.graphQLClient(connector, objectMapper),
+                    InMemoryPullRequest.REPOSITORY, InMemoryPullRequest.PULL_REQUEST_NUMBER);
+        } else {
+            GitHub gitHub = new GitHubBuilder()
+                    .withEndpoint(InMemoryPullRequest.API_URL)
+                    .withConnector(connector)
+                    .build();
+            GHPullRequest pullRequest = gitHub.getRepository(InMemoryPullRequest.REPOSITORY)
+                    .getPullRequest(InMemoryPullRequest.PULL_REQUEST_NUMBER);
+            maintainedCommentsApi = new RestMaintainedCommentsApi(pullRequest);
+        }
+
+        if (lookup().isEmpty()) {
+            throw new IllegalStateException("The maintained comment should be found");
+        }
+    }
+
+    @Benchmark
+    public Optional<MaintainedComment> lookup() throws IOException {
+        return maintainedCommentsApi.find(BenchmarkData.MAINTAINED_COMMENT_MARKER, Optional.<MaintainedCommentState> empty());
+    }
+}
@@ -0,0 +1,249 @@
+package io.quarkus.bot.batch;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Commands;
+import io.quarkiverse.githubaction.Inputs;
+
+/**
+ * Runs an action for each item of a manifest in the same process, so that the startup of the JVM and the setup of the
+ * GitHub clients are paid once for all the items.
+ * <p>
+ * The manifest designated by the {@code batch-file} input is a JSON array of objects, each object providing the inputs of
+ * an item, for instance {@code [{"workflow-run-id": 123, "build-metadata-file-path": "run-123/build-metadata.json"}]}.
+ * The inputs of the item override the inputs of the action. At most {@code batch-concurrency} items are processed at the
+ * same time.
+ * <p>
+ * Some inputs designate a file the action writes to, for instance {@code comment-state-file}: the items can't share these
+ * files as they are processed concurrently, so the manifest is rejected if two items end up with the same value.
+ * <p>
+ * A failing item doesn't prevent the other items from being processed, the result of each item is appended to the job
+ * summary.
+ */
+public final class Batch {
+
+    public static final String BATCH_FILE = "batch-file";
+    public static final String BATCH_CONCURRENCY = "batch-concurrency";
+    public static final int DEFAULT_CONCURRENCY = 4;
+
+    /**
+     * Inputs that can be used as a label for the items, if no {@code name} is provided.
+     */
+    private static final List<String> LABEL_INPUTS = List.of("name", "pr-number", "workflow-run-id");
+
+    private Batch() {
+    }
+
+    @FunctionalInterface
+    public interface ItemAction {
+
+        void run(Commands commands, Inputs inputs) throws Exception;
+    }
+
+    /**
+     * Runs the action for each item of the manifest if the {@code batch-file} input is provided.
+     *
+     * @param itemScopedInputs the inputs that must have a different value for each item, typically files written by the action
+     * @return false if there is no manifest, in which case the action should be run once with the inputs of the action
+     */
+    public static boolean runIfBatch(String action, ObjectMapper objectMapper, Commands commands, Inputs inputs,
+            Set<String> itemScopedInputs, ItemAction itemAction) {
+        Optional<String> batchFile = inputs.get(BATCH_FILE);
+        if (batchFile.isEmpty()) {
+            return false;
+        }
+
+        List<Inputs> items;
+        try {
+            items = readManifest(objectMapper, Path.of(batchFile.get()), inputs, itemScopedInputs);
+        } catch (IOException e) {
+            commands.error("Unable to read the batch manifest " + batchFile.get() + ": " + e.getMessage());
+            return true;
+        }
+
+        int concurrency = inputs.getInt(BATCH_CONCURRENCY).orElse(DEFAULT_CONCURRENCY);
+        List<ItemResult> results = run(items, concurrency, commands, itemAction);
+
+        commands.appendJobSummary(toMarkdown(action, results));
+
+        long failures = results.stream().filter(r -> !r.success()).count();
+        if (failures > 0) {
+            commands.error(failures + " of the " + results.size() + " items of the batch failed");
+        }
+
+        return true;
+    }
+
+    static List<Inputs> readManifest(ObjectMapper objectMapper, Path manifest, Inputs defaults, Set<String> itemScopedInputs)
+            throws IOException {
+        JsonNode root = objectMapper.readTree(manifest.toFile());
+        if (root == null || !root.isArray()) {
+            throw new IOException("The manifest should be a JSON array of objects");
+        }
+
+        List<Inputs> items = new ArrayList<>(root.size());
+        for (JsonNode node : root) {
+            if (!node.isObject()) {
+                throw new IOException("The manifest should be a JSON array of objects, found: " + node);
+            }
+
+            Map<String, String> inputs = new LinkedHashMap<>(defaults.all());
+            // the manifest doesn't nest
+            inputs.remove(BATCH_FILE);
+            for (Iterator<Map.Entry<String, JsonNode>> fields = node.fields(); fields.hasNext();) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if (field.getValue().isNull()) {
+                    inputs.remove(field.getKey());
+                } else {
+                    inputs.put(field.getKey(), field.getValue().isValueNode() ? field.getValue().asText()
+                            : field.getValue().toString());
+                }
+            }
+            items.add(new ItemInputs(Collections.unmodifiableMap(inputs)));
+        }
+
+        for (String itemScopedInput : itemScopedInputs) {
+            Map<String, String> labels = new HashMap<>();
+            for (int i = 0; i < items.size(); i++) {
+                Optional<String> value = items.get(i).get(itemScopedInput);
+                if (value.isEmpty()) {
+                    continue;
+                }
+                String label = getLabel(items.get(i), i);
+                String previousLabel = labels.putIfAbsent(value.get(), label);
+                if (previousLabel != null) {
+                    throw new IOException("Items " + previousLabel + " and " + label + " share the same " + itemScopedInput
+                            + " input " + value.get() + ", each item should provide its own");
+                }
+            }
+        }
+
+        return items;
+    }
+
+    static List<ItemResult> run(List<Inputs> items, int concurrency, Commands commands, ItemAction itemAction) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(concurrency, items.size())), r -> {
+            Thread thread = new Thread(r, "batch-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            List<Future<ItemResult>> futures = new ArrayList<>(items.size());
+            for (int i = 0; i < items.size(); i++) {
+                Inputs item = items.get(i);
+                String label = getLabel(item, i);
+                futures.add(executor.submit(() -> runItem(label, item, commands, itemAction)));
+            }
+
+            List<ItemResult> results = new ArrayList<>(items.size());
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    results.add(futures.get(i).get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    futures.forEach(f -> f.cancel(true));
+                    results.add(new ItemResult(getLabel(items.get(i), i), false, "Interrupted", Duration.ZERO));
+                } catch (ExecutionException e) {
+                    // runItem() doesn't throw
+                    results.add(new ItemResult(getLabel(items.get(i), i), false, String.valueOf(e.getCause()),
+                            Duration.ZERO));
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static ItemResult runItem(String label, Inputs inputs, Commands commands, ItemAction itemAction) {
+        ItemCommands itemCommands = new ItemCommands(label, commands);
+        long start = System.nanoTime();
+
+        try {
+            itemAction.run(itemCommands, inputs);
+        } catch (Exception e) {
+            itemCommands.error("Unexpected error: " + e.getMessage());
+            e.printStackTrace();
+        }
+
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+        Optional<String> firstError = itemCommands.getFirstError();
+        if (firstError.isPresent()) {
+            return new ItemResult(label, false, firstError.get(), duration);
+        }
+        return new ItemResult(label, true, itemCommands.getOutputs(), duration);
+    }
+
+    private static String getLabel(Inputs inputs, int index) {
+        for (String labelInput : LABEL_INPUTS) {
+            Optional<String> label = inputs.get(labelInput);
+            if (label.isPresent()) {
+                return labelInput.equals("pr-number") ? "#" + label.get() : label.get();
+            }
+        }
+        return "Item " + (index + 1);
+    }
+
+    static String toMarkdown(String action, List<ItemResult> results) {
+        long failures = results.stream().filter(r -> !r.success()).count();
+
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("### Batch ").append(action).append("\n\n")
+                .append(results.size() - failures).append(" succeeded, ").append(failures).append(" failed\n\n");
+
+        if (!results.isEmpty()) {
+            markdown.append("| Status | Item | Duration (ms) | Details |\n");
+            markdown.append("| :-:  | --  | --:  | --  |\n");
+            for (ItemResult result : results) {
+                markdown.append("| ").append(result.success() ? ":white_check_mark:" : ":x:")
+                        .append(" | ").append(escape(result.label()))
+                        .append(" | ").append(result.duration().toMillis())
+                        .append(" | ").append(escape(result.details())).append(" |\n");
+            }
+            markdown.append('\n');
+        }
+
+        return markdown.toString();
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace("|", "\\|").replace("\r", "").replace("\n", " ");
+    }
+
+    /**
+     * @param details the first error if the item failed, the outputs of the item otherwise
+     */
+    public record ItemResult(String label, boolean success, String details, Duration duration) {
+    }
+
+    private record ItemInputs(Map<String, String> all) implements Inputs {
+    }
+}
@@ -0,0 +1,170 @@
+package io.quarkus.bot.batch;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import io.quarkiverse.githubaction.Commands;
+
+/**
+ * The commands of an item of a batch: messages are prefixed with the label of the item so that they can be told apart in
+ * the log and the errors are recorded to report the result of the item.
+ * <p>
+ * Outputs are per step so they are not set, they are reported in the job summary instead.
+ * <p>
+ * The items share the commands of the action, the job summary is appended while holding their lock so that the summaries of
+ * the items are not interleaved.
+ */
+class ItemCommands implements Commands {
+
+    private final String label;
+    private final Commands delegate;
+    private final Map<String, String> outputs = new TreeMap<>();
+
+    private String firstError;
+
+    ItemCommands(String label, Commands delegate) {
+        this.label = label;
+        this.delegate = delegate;
+    }
+
+    synchronized Optional<String> getFirstError() {
+        return Optional.ofNullable(firstError);
+    }
+
+    synchronized String getOutputs() {
+        StringBuilder details = new StringBuilder();
+        for (Map.Entry<String, String> output : outputs.entrySet()) {
+            if (details.length() > 0) {
+                details.append(", ");
+            }
+            details.append(output.getKey()).append(": ").append(output.getValue());
+        }
+        return details.toString();
+    }
+
+    private synchronized void recordError(String message) {
+        if (firstError == null) {
+            firstError = message;
+        }
+    }
+
+    private String prefix(String message) {
+        return "[" + label + "] " + message;
+    }
+
+    @Override
+    public synchronized void setOutput(String name, String value) {
+        outputs.put(name, value);
+    }
+
+    @Override
+    public void debug(String message) {
+        delegate.debug(prefix(message));
+    }
+
+    @Override
+    public void notice(String message) {
+        delegate.notice(prefix(message));
+    }
+
+    @Override
+    public void notice(String message, String title, String file, Integer line, Integer endLine, Integer col,
+            Integer endColumn) {
+        delegate.notice(prefix(message), title, file, line, endLine, col, endColumn);
+    }
+
+    @Override
+    public void warning(String message) {
+        delegate.warning(prefix(message));
+    }
+
+    @Override
+    public void warning(String message, String title, String file, Integer line, Integer endLine, Integer col,
+            Integer endColumn) {
+        delegate.warning(prefix(message), title, file, line, endLine, col, endColumn);
+    }
+
+    @Override
+    public void error(String message) {
+        recordError(message);
+        delegate.error(prefix(message));
+    }
+
+    @Override
+    public void error(String message, String title, String file, Integer line, Integer endLine, Integer col,
+            Integer endColumn) {
+        recordError(message);
+        delegate.error(prefix(message), title, file, line, endLine, col, endColumn);
+    }
+
+    @Override
+    public void group(String title) {
+        // groups can't be nested and the items run concurrently
+    }
+
+    @Override
+    public void endGroup() {
+    }
+
+    @Override
+    public void echo(String message) {
+        delegate.echo(prefix(message));
+    }
+
+    @Override
+    public void addMask(String value) {
+        delegate.addMask(value);
+    }
+
+    @Override
+    public void stopCommands() {
+        // this would affect all the items
+    }
+
+    @Override
+    public void pursueCommands() {
+    }
+
+    @Override
+    public void echoOn() {
+        delegate.echoOn();
+    }
+
+    @Override
+    public void echoOff() {
+        delegate.echoOff();
+    }
+
+    @Override
+    public void saveState(String name, String value) {
+        delegate.saveState(name, value);
+    }
+
+    @Override
+    public void environmentVariable(String name, String value) {
+        delegate.environmentVariable(name, value);
+    }
+
+    @Override
+    public void jobSummary(String markdown) {
+        // replacing the summary would drop the summaries of the other items
+        appendJobSummary(markdown);
+    }
+
+    @Override
+    public void appendJobSummary(String markdown) {
+        synchronized (delegate) {
+            delegate.appendJobSummary(markdown);
+        }
+    }
+
+    @Override
+    public void removeJobSummary() {
+    }
+
+    @Override
+    public void systemPath(String path) {
+        delegate.systemPath(path);
+    }
+}
@@ -0,0 +1,186 @@
+package io.quarkus.bot.concurrent;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A minimal structured concurrency scope, modeled after {@code StructuredTaskScope.ShutdownOnFailure}, which is not
+ * available in Java 17.
+ * <p>
+ * Subtasks forked in a scope must be joined before their results are consumed. The first failure cancels all the other
+ * subtasks. A sequential scope runs the subtasks in the calling thread, which allows to keep the same code path whether the
+ * calls are run concurrently or not.
+ */
+public final class TaskScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Future<?>> futures = new ArrayList<>();
+    private volatile Throwable failure;
+
+    private TaskScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public static TaskScope sequential() {
+        return new TaskScope(null);
+    }
+
+    public static TaskScope concurrent(String name) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return new TaskScope(Executors.newCachedThreadPool(r -> {
+            Thread thread = new Thread(r, name + "-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    public static TaskScope of(boolean concurrent, String name) {
+        return concurrent ? concurrent(name) : sequential();
+    }
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+        Subtask<T> subtask = new Subtask<>();
+
+        if (failure != null) {
+            subtask.state = State.CANCELLED;
+            return subtask;
+        }
+
+        if (executor == null) {
+            subtask.run(task, this);
+            return subtask;
+        }
+
+        synchronized (futures) {
+            futures.add(executor.submit(() -> subtask.run(task, this)));
+        }
+        return subtask;
+    }
+
+    /**
+     * Waits for all the subtasks forked so far.
+     */
+    public TaskScope join() throws InterruptedIOException {
+        List<Future<?>> toJoin;
+        synchronized (futures) {
+            toJoin = new ArrayList<>(futures);
+        }
+
+        for (Future<?> future : toJoin) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancelAll();
+                throw new InterruptedIOException("Interrupted while waiting for subtasks");
+            } catch (ExecutionException | CancellationException e) {
+                // failures are tracked by the subtasks
+            }
+        }
+
+        return this;
+    }
+
+    /**
+     * Rethrows the first failure, wrapped in an {@link IOException} if it is a checked exception of another type.
+     */
+    public void throwIfFailed() throws IOException {
+        Throwable failure = this.failure;
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof IOException ioe) {
+            throw ioe;
+        }
+        if (failure instanceof RuntimeException re) {
+            throw re;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        throw new IOException(failure);
+    }
+
+    @Override
+    public void close() {
+        if (executor == null) {
+            return;
+        }
+
+        cancelAll();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void fail(Throwable t) {
+        synchronized (futures) {
+            if (failure != null) {
+                return;
+            }
+            failure = t;
+        }
+        cancelAll();
+    }
+
+    private void cancelAll() {
+        synchronized (futures) {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    public static final class Subtask<T> {
+
+        private volatile State state = State.UNAVAILABLE;
+        private volatile T result;
+
+        private Subtask() {
+        }
+
+        private void run(Callable<T> task, TaskScope scope) {
+            try {
+                result = task.call();
+                state = State.SUCCESS;
+            } catch (Throwable t) {
+                state = State.FAILED;
+                scope.fail(t);
+            }
+        }
+
+        public State state() {
+            return state;
+        }
+
+        /**
+         * @return the result of the subtask, only available once the scope has been joined and if the subtask succeeded
+         */
+        public T get() {
+            if (state != State.SUCCESS) {
+                throw new IllegalStateException("Result is not available, subtask state is " + state);
+            }
+            return result;
+        }
+    }
+
+    public enum State {
+        UNAVAILABLE,
+        SUCCESS,
+        FAILED,
+        CANCELLED
+    }
+}
@@ -0,0 +1,202 @@
+package io.quarkus.bot.develocity;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatus;
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatuses;
+
+/**
+ * Reads the build metadata from a single file, a directory or a glob matching several fragments (typically one per matrix
+ * job).
+ * <p>
+ * Fragments are parsed in parallel with the streaming API, then merged: if a job is present in several fragments, the one
+ * from the last fragment in path order wins.
+ */
+public class BuildMetadataReader {
+
+    private static final String JSON_EXTENSION = ".json";
+    private static final String GLOB_CHARACTERS = "*?[{";
+    private static final String ANY_DIRECTORIES = "**/";
+
+    private final JsonFactory jsonFactory;
+    private final JobOrder jobOrder;
+
+    public BuildMetadataReader(JsonFactory jsonFactory) {
+        this(jsonFactory, JobOrder.defaults());
+    }
+
+    public BuildMetadataReader(JsonFactory jsonFactory, JobOrder jobOrder) {
+        this.jsonFactory = jsonFactory;
+        this.jobOrder = jobOrder;
+    }
+
+    /**
+     * A {@code **} directory in a glob also matches no directory at all, as it would in a shell with {@code globstar}: the
+     * fragments at the top level of the base directory are included.
+     *
+     * @return the readable files matching the given path, sorted
+     */
+    public List<Path> resolve(String pathOrGlob) throws IOException {
+        int firstGlobCharacter = indexOfGlobCharacter(pathOrGlob);
+
+        if (firstGlobCharacter < 0) {
+            Path path = Path.of(pathOrGlob);
+            if (Files.isDirectory(path)) {
+                return find(path, p -> p.getFileName().toString().endsWith(JSON_EXTENSION));
+            }
+            return Files.isReadable(path) ? List.of(path) : List.of();
+        }
+
+        int lastSeparator = pathOrGlob.lastIndexOf('/', firstGlobCharacter);
+        Path baseDirectory = Path.of(lastSeparator < 0 ? "." : pathOrGlob.substring(0, lastSeparator + 1));
+        if (!Files.isDirectory(baseDirectory)) {
+            return List.of();
+        }
+
+        String glob = pathOrGlob.substring(lastSeparator + 1);
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + glob);
+        PathMatcher withoutAnyDirectoryMatcher = glob.contains(ANY_DIRECTORIES)
+                ? FileSystems.getDefault().getPathMatcher("glob:" + glob.replace(ANY_DIRECTORIES, ""))
+                : matcher;
+        return find(baseDirectory, p -> {
+            Path relativePath = baseDirectory.relativize(p);
+            return matcher.matches(relativePath) || withoutAnyDirectoryMatcher.matches(relativePath);
+        });
+    }
+
+    public BuildScanStatuses read(List<Path> files) throws IOException {
+        List<Fragment> fragments;
+        try {
+            fragments = files.parallelStream()
+                    .map(this::readFragment)
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        BuildScanStatuses statuses = new BuildScanStatuses();
+        Map<String, BuildScanStatus> buildsByJobName = new LinkedHashMap<>();
+
+        for (int i = 0; i < fragments.size(); i++) {
+            Fragment fragment = fragments.get(i);
+
+            if (fragment.prNumber() != 0) {
+                if (statuses.prNumber != 0 && statuses.prNumber != fragment.prNumber()) {
+                    throw new IOException("Build metadata files reference different pull requests: #" + statuses.prNumber
+                            + " and #" + fragment.prNumber() + " in " + files.get(i));
+                }
+                statuses.prNumber = fragment.prNumber();
+            }
+
+            for (BuildScanStatus build : fragment.builds()) {
+                buildsByJobName.put(build.jobName, build);
+            }
+        }
+
+        statuses.builds = new TreeSet<>(buildsByJobName.values());
+
+        return statuses;
+    }
+
+    private Fragment readFragment(Path file) {
+        int prNumber = 0;
+        List<BuildScanStatus> builds = new ArrayList<>();
+
+        try (JsonParser parser = jsonFactory.createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("Build metadata file " + file + " does not contain a JSON object");
+            }
+
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                if ("prNumber".equals(fieldName) && value == JsonToken.VALUE_NUMBER_INT) {
+                    prNumber = parser.getIntValue();
+                } else if ("builds".equals(fieldName) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        BuildScanStatus build = readBuild(parser);
+                        if (build.jobName != null) {
+                            builds.add(build);
+                        }
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(new IOException("Unable to parse " + file + ": " + e.getMessage(), e));
+        }
+
+        return new Fragment(prNumber, builds);
+    }
+
+    private BuildScanStatus readBuild(JsonParser parser) throws IOException {
+        BuildScanStatus build = new BuildScanStatus();
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String fieldName = parser.currentName();
+            JsonToken value = parser.nextToken();
+
+            switch (fieldName) {
+                case "jobName":
+                    build.setJobName(value == JsonToken.VALUE_NULL ? null : parser.getText(), jobOrder);
+                    break;
+                case "buildFailure":
+                    build.buildFailure = value == JsonToken.VALUE_NULL ? null : parser.getBooleanValue();
+                    break;
+                case "buildScanLink":
+                    build.buildScanLink = value == JsonToken.VALUE_NULL ? null : parser.getText();
+                    break;
+                case "duration":
+                    build.duration = value.isNumeric() ? parser.getLongValue() : null;
+                    parser.skipChildren();
+                    break;
+                default:
+                    parser.skipChildren();
+            }
+        }
+
+        return build;
+    }
+
+    private static List<Path> find(Path directory, Predicate<Path> filter) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(Files::isReadable)
+                    .filter(filter)
+                    .sorted(Comparator.comparing(Path::toString))
+                    .collect(Collectors.toList());
+        }
+    }
+
+    private static int indexOfGlobCharacter(String path) {
+        for (int i = 0; i < path.length(); i++) {
+            if (GLOB_CHARACTERS.indexOf(path.charAt(i)) >= 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Fragment(int prNumber, List<BuildScanStatus> builds) {
+    }
+}
@@ -0,0 +1,336 @@
+package io.quarkus.bot.develocity;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Commands;
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Fetches the duration, the test counts and the cache hits of the builds from the Develocity API, to render them in the
+ * build scans table.
+ * <p>
+ * The builds are fetched in parallel, with a bounded number of concurrent requests and a timeout for each request. Build
+ * scans are immutable once published, so the details can be kept in a local cache, keyed by build scan id, for the next
+ * runs.
+ * <p>
+ * Only the build scans published to the Develocity server designated by the {@code develocity-server-url} input are
+ * enriched: the links come from the build metadata and the access key must not be sent to any other host.
+ * <p>
+ * The Quarkus builds are Maven builds so we rely on the Maven models of the API.
+ */
+public class BuildScanEnricher {
+
+    static final int DEFAULT_CONCURRENCY = 8;
+    static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(10);
+
+    private static final Pattern BUILD_SCAN_PATH = Pattern.compile("^/s/([A-Za-z0-9]+)/?$");
+    private static final String BUILD_PATH = "/api/builds/%s?models=maven-attributes&models=maven-build-cached-performance";
+    private static final String TESTS_PATH = "/api/tests/build/%s";
+
+    private final HttpClient httpClient;
+    private final ObjectMapper objectMapper;
+    private final URI server;
+    private final Optional<String> accessKey;
+    private final Semaphore permits;
+    private final Duration timeout;
+    private final Optional<Path> cacheDirectory;
+
+    /**
+     * @return the enricher if the enrichment is enabled by the {@code develocity-enrichment} input and the server is valid
+     */
+    static Optional<BuildScanEnricher> fromInputs(ObjectMapper objectMapper, Commands commands, Inputs inputs) {
+        if (!inputs.getBoolean("develocity-enrichment").orElse(false)) {
+            return Optional.empty();
+        }
+
+        Optional<String> serverUrl = inputs.get("develocity-server-url");
+        if (serverUrl.isEmpty()) {
+            commands.warning("Develocity enrichment requires the develocity-server-url input, ignoring");
+            return Optional.empty();
+        }
+        URI server;
+        try {
+            server = new URI(serverUrl.get());
+        } catch (URISyntaxException e) {
+            commands.warning("Invalid develocity-server-url " + serverUrl.get() + ", ignoring Develocity enrichment: "
+                    + e.getMessage());
+            return Optional.empty();
+        }
+        if (!isHttp(server)) {
+            commands.warning("Invalid develocity-server-url " + serverUrl.get()
+                    + ", ignoring Develocity enrichment: an http or https URL is expected");
+            return Optional.empty();
+        }
+
+        Duration timeout = inputs.getLong("develocity-timeout").stream()
+                .filter(t -> t > 0)
+                .mapToObj(Duration::ofSeconds)
+                .findFirst()
+                .orElse(DEFAULT_TIMEOUT);
+
+        return Optional.of(new BuildScanEnricher(HttpClient.newBuilder().connectTimeout(timeout).build(), objectMapper, server,
+                inputs.get("develocity-access-key"),
+                inputs.getInt("develocity-concurrency").orElse(DEFAULT_CONCURRENCY),
+                timeout,
+                inputs.get("develocity-cache-directory").map(Path::of)));
+    }
+
+    /**
+     * @param server the Develocity server, the build scans published elsewhere are ignored
+     */
+    public BuildScanEnricher(HttpClient httpClient, ObjectMapper objectMapper, URI server, Optional<String> accessKey,
+            int concurrency, Duration timeout, Optional<Path> cacheDirectory) {
+        if (!isHttp(server)) {
+            throw new IllegalArgumentException("The Develocity server should be an http or https URL: " + server);
+        }
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.server = server;
+        this.accessKey = accessKey;
+        this.permits = new Semaphore(Math.max(1, concurrency));
+        this.timeout = timeout;
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    /**
+     * Builds whose details could not be fetched are absent from the result.
+     *
+     * @return the details of the builds, keyed by build scan link
+     */
+    public Map<String, BuildScanDetails> enrich(Collection<String> buildScanLinks) throws InterruptedException {
+        Map<String, CompletableFuture<Optional<BuildScanDetails>>> futures = new HashMap<>();
+
+        for (String buildScanLink : new LinkedHashSet<>(buildScanLinks)) {
+            Optional<String> buildScanIdOfLink = getBuildScanId(buildScanLink);
+            if (buildScanIdOfLink.isEmpty()) {
+                continue;
+            }
+            String buildScanId = buildScanIdOfLink.get();
+
+            Optional<BuildScanDetails> cachedDetails = readCache(buildScanId);
+            if (cachedDetails.isPresent()) {
+                futures.put(buildScanLink, CompletableFuture.completedFuture(cachedDetails));
+                continue;
+            }
+
+            futures.put(buildScanLink, fetch(buildScanId));
+        }
+
+        Map<String, BuildScanDetails> details = new HashMap<>();
+        for (Map.Entry<String, CompletableFuture<Optional<BuildScanDetails>>> future : futures.entrySet()) {
+            try {
+                future.getValue().get().ifPresent(d -> details.put(future.getKey(), d));
+            } catch (ExecutionException e) {
+                // the details are only a nice to have
+            }
+        }
+        return details;
+    }
+
+    /**
+     * @return the id of the build scan if the link is a build scan of our server: same scheme, host and port
+     */
+    Optional<String> getBuildScanId(String buildScanLink) {
+        URI link;
+        try {
+            link = new URI(buildScanLink);
+        } catch (URISyntaxException e) {
+            return Optional.empty();
+        }
+        if (!isHttp(link)
+                || !server.getScheme().equalsIgnoreCase(link.getScheme())
+                || !server.getHost().equalsIgnoreCase(link.getHost())
+                || getPort(server) != getPort(link)
+                || link.getRawPath() == null) {
+            return Optional.empty();
+        }
+
+        Matcher matcher = BUILD_SCAN_PATH.matcher(link.getRawPath());
+        return matcher.matches() ? Optional.of(matcher.group(1)) : Optional.empty();
+    }
+
+    private static boolean isHttp(URI uri) {
+        return ("http".equalsIgnoreCase(uri.getScheme()) || "https".equalsIgnoreCase(uri.getScheme())) && uri.getHost() != null;
+    }
+
+    private static int getPort(URI uri) {
+        if (uri.getPort() != -1) {
+            return uri.getPort();
+        }
+        return "https".equalsIgnoreCase(uri.getScheme()) ? 443 : 80;
+    }
+
+    private CompletableFuture<Optional<BuildScanDetails>> fetch(String buildScanId) throws InterruptedException {
+        // the requests are sent to the configured server, never to the host of the link
+        String apiRoot = server.getScheme() + "://" + server.getRawAuthority();
+        CompletableFuture<JsonNode> build = get(apiRoot + String.format(BUILD_PATH, buildScanId));
+        CompletableFuture<JsonNode> tests = get(apiRoot + String.format(TESTS_PATH, buildScanId));
+
+        return build.thenCombine(tests, (buildNode, testsNode) -> {
+            if (buildNode == null) {
+                return Optional.<BuildScanDetails> empty();
+            }
+
+            BuildScanDetails details = toDetails(buildNode, testsNode);
+            // if the tests are not available yet, we will try again next time
+            if (testsNode != null) {
+                writeCache(buildScanId, details);
+            }
+            return Optional.of(details);
+        });
+    }
+
+    /**
+     * Each request holds a permit until it completes, so that at most {@code develocity-concurrency} requests are in flight.
+     *
+     * @return the body of the response, null if the request failed
+     */
+    private CompletableFuture<JsonNode> get(String uri) throws InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET();
+        accessKey.ifPresent(key -> request.header("Authorization", "Bearer " + key));
+
+        permits.acquire();
+        CompletableFuture<HttpResponse<byte[]>> pendingResponse;
+        try {
+            pendingResponse = httpClient.sendAsync(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+
+        return pendingResponse.whenComplete((r, failure) -> permits.release())
+                .thenApply(response -> {
+                    if (response.statusCode() != 200) {
+                        return null;
+                    }
+                    try {
+                        return objectMapper.readTree(response.body());
+                    } catch (IOException e) {
+                        return null;
+                    }
+                })
+                .exceptionally(e -> null);
+    }
+
+    static BuildScanDetails toDetails(JsonNode build, JsonNode tests) {
+        BuildScanDetails details = new BuildScanDetails();
+
+        JsonNode attributes = build.path("models").path("mavenAttributes").path("model");
+        if (attributes.path("buildDuration").isNumber()) {
+            details.buildDurationMillis = attributes.path("buildDuration").asLong();
+        }
+
+        JsonNode goalExecutions = build.path("models").path("mavenBuildCachedPerformance").path("model").path("goalExecution");
+        if (goalExecutions.isArray()) {
+            int cacheable = 0;
+            int avoided = 0;
+            for (JsonNode goalExecution : goalExecutions) {
+                String outcome = goalExecution.path("avoidanceOutcome").asText("");
+                if (outcome.startsWith("avoided_from_")) {
+                    avoided++;
+                    cacheable++;
+                } else if (outcome.equals("executed_cacheable")) {
+                    cacheable++;
+                }
+            }
+            if (cacheable > 0) {
+                details.cacheHitRatio = (double) avoided / cacheable;
+            }
+        }
+
+        if (tests != null && tests.path("workUnits").isArray()) {
+            int total = 0;
+            int failed = 0;
+            for (JsonNode workUnit : tests.path("workUnits")) {
+                JsonNode outcomes = workUnit.path("outcomeDistribution");
+                total += outcomes.path("total").asInt();
+                failed += outcomes.path("failed").asInt();
+            }
+            details.tests = total;
+            details.failedTests = failed;
+        }
+
+        return details;
+    }
+
+    private Optional<BuildScanDetails> readCache(String buildScanId) {
+        if (cacheDirectory.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Path cacheFile = cacheDirectory.get().resolve(buildScanId + ".json");
+        if (!Files.isReadable(cacheFile)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(cacheFile.toFile(), BuildScanDetails.class));
+        } catch (IOException e) {
+            // we will fetch them again
+            return Optional.empty();
+        }
+    }
+
+    private void writeCache(String buildScanId, BuildScanDetails details) {
+        if (cacheDirectory.isEmpty()) {
+            return;
+        }
+
+        Path tempFile = null;
+        try {
+            Files.createDirectories(cacheDirectory.get());
+            tempFile = Files.createTempFile(cacheDirectory.get(), buildScanId, ".tmp");
+            objectMapper.writeValue(tempFile.toFile(), details);
+            Files.move(tempFile, cacheDirectory.get().resolve(buildScanId + ".json"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // the cache is only an optimization
+            if (tempFile != null) {
+                try {
+                    Files.deleteIfExists(tempFile);
+                } catch (IOException ignored) {
+                }
+            }
+        }
+    }
+
+    @RegisterForReflection
+    public static class BuildScanDetails {
+
+        public Long buildDurationMillis;
+
+        public Integer tests;
+
+        public Integer failedTests;
+
+        /**
+         * Share of the cacheable goals whose execution was avoided thanks to the build cache.
+         */
+        public Double cacheHitRatio;
+    }
+}
@@ -0,0 +1,132 @@
+package io.quarkus.bot.develocity;
+
+import java.util.BitSet;
+import java.util.Map;
+
+/**
+ * Replaces the {@code :construction:} placeholder of the report table rows with a link to the build scan of the job.
+ * <p>
+ * The body is rewritten in a single pass: for each table row, we look up the cells in the build scan mapping and only
+ * allocate a cell string if a job name of the same length exists.
+ */
+public final class BuildScanLinksRewriter {
+
+    static final String CONSTRUCTION = ":construction:";
+    private static final String LINK_PREFIX = "[:mag:](";
+    private static final String LINK_SUFFIX = ")";
+
+    private final Map<String, String> buildScanLinks;
+    private final BitSet jobNameLengths = new BitSet();
+    private final int extraCapacity;
+
+    public BuildScanLinksRewriter(Map<String, String> buildScanLinks) {
+        this.buildScanLinks = buildScanLinks;
+
+        int extraCapacity = 0;
+        for (Map.Entry<String, String> buildScanLink : buildScanLinks.entrySet()) {
+            jobNameLengths.set(buildScanLink.getKey().length());
+            extraCapacity += LINK_PREFIX.length() + String.valueOf(buildScanLink.getValue()).length() + LINK_SUFFIX.length()
+                    - CONSTRUCTION.length();
+        }
+        this.extraCapacity = Math.max(extraCapacity, 0);
+    }
+
+    /**
+     * @return the rewritten body or the very same instance if nothing was rewritten
+     */
+    public String rewrite(String body) {
+        int length = body.length();
+        StringBuilder rewrittenBody = new StringBuilder(length + extraCapacity);
+
+        boolean rewritten = false;
+        int lineStart = 0;
+        while (lineStart < length) {
+            int lineEnd = body.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = length;
+            }
+
+            String buildScanLink = findBuildScanLink(body, lineStart, lineEnd);
+            if (buildScanLink == null) {
+                rewrittenBody.append(body, lineStart, lineEnd);
+            } else {
+                rewritten |= appendWithLink(rewrittenBody, body, lineStart, lineEnd, buildScanLink);
+            }
+
+            if (lineEnd < length) {
+                rewrittenBody.append('\n');
+            }
+            lineStart = lineEnd + 1;
+        }
+
+        return rewritten ? rewrittenBody.toString() : body;
+    }
+
+    private String findBuildScanLink(String body, int lineStart, int lineEnd) {
+        int cellStart = indexOf(body, '|', lineStart, lineEnd);
+        if (cellStart < 0) {
+            return null;
+        }
+
+        while (true) {
+            int cellEnd = indexOf(body, '|', cellStart + 1, lineEnd);
+            if (cellEnd < 0) {
+                return null;
+            }
+
+            int start = cellStart + 1;
+            int end = cellEnd;
+            while (start < end && Character.isWhitespace(body.charAt(start))) {
+                start++;
+            }
+            while (end > start && Character.isWhitespace(body.charAt(end - 1))) {
+                end--;
+            }
+
+            if (end > start && jobNameLengths.get(end - start)) {
+                String buildScanLink = buildScanLinks.get(body.substring(start, end));
+                if (buildScanLink != null) {
+                    return buildScanLink;
+                }
+            }
+
+            cellStart = cellEnd;
+        }
+    }
+
+    private static boolean appendWithLink(StringBuilder rewrittenBody, String body, int lineStart, int lineEnd,
+            String buildScanLink) {
+        int position = lineStart;
+        int construction;
+        while ((construction = indexOfConstruction(body, position, lineEnd)) >= 0) {
+            rewrittenBody.append(body, position, construction)
+                    .append(LINK_PREFIX).append(buildScanLink).append(LINK_SUFFIX);
+            position = construction + CONSTRUCTION.length();
+        }
+        rewrittenBody.append(body, position, lineEnd);
+
+        return position > lineStart;
+    }
+
+    private static int indexOfConstruction(String body, int from, int to) {
+        int lastStart = to - CONSTRUCTION.length();
+        for (int i = indexOf(body, ':', from, lastStart + 1); i >= 0; i = indexOf(body, ':', i + 1, lastStart + 1)) {
+            if (body.startsWith(CONSTRUCTION, i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Bounded to the current line so that we never scan the rest of the body.
+     */
+    private static int indexOf(String body, char c, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (body.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,258 @@
+package io.quarkus.bot.develocity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.quarkus.bot.develocity.BuildScanEnricher.BuildScanDetails;
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatus;
+
+/**
+ * Renders the build scans table, split in pages fitting in the text of a check run.
+ * <p>
+ * GitHub rejects check run outputs whose text is larger than 65,535 characters so we keep track of the encoded size while
+ * rendering the rows, and start a new page before going past the limit. We count UTF-8 bytes, which is never less than the
+ * number of characters.
+ * <p>
+ * Build scan links shared by several jobs are rendered as reference-style links, defined once at the bottom of each page.
+ * <p>
+ * If the details of the builds have been fetched from Develocity, the duration, the tests and the cache hits of each build
+ * are rendered in additional columns.
+ */
+final class BuildScansCheckRunRenderer {
+
+    static final int MAX_TEXT_SIZE = 65_535;
+
+    /**
+     * Guards against a single row not fitting in a page.
+     */
+    static final int MAX_JOB_NAME_LENGTH = 1_024;
+
+    private static final String HEADER = "| Status | Name | Build scan |\n"
+            + "| :-:  | --  | :-:  |\n";
+    private static final String HEADER_WITH_DETAILS = "| Status | Name | Duration | Tests | Cache hits | Build scan |\n"
+            + "| :-:  | --  | --:  | --:  | --:  | :-:  |\n";
+    private static final String NO_DETAIL = "-";
+
+    private final int maxTextSize;
+    private final Map<String, BuildScanDetails> details;
+    private final String header;
+
+    BuildScansCheckRunRenderer() {
+        this(MAX_TEXT_SIZE);
+    }
+
+    BuildScansCheckRunRenderer(int maxTextSize) {
+        this(maxTextSize, Map.of());
+    }
+
+    /**
+     * @param details the details of the builds fetched from Develocity, keyed by build scan link
+     */
+    BuildScansCheckRunRenderer(int maxTextSize, Map<String, BuildScanDetails> details) {
+        this.maxTextSize = maxTextSize;
+        this.details = details;
+        this.header = details.isEmpty() ? HEADER : HEADER_WITH_DETAILS;
+    }
+
+    /**
+     * @return the pages, at least one
+     */
+    List<String> render(Collection<BuildScanStatus> builds) {
+        Map<String, Integer> linkOccurrences = new HashMap<>();
+        for (BuildScanStatus build : builds) {
+            if (build.buildScanLink != null) {
+                linkOccurrences.merge(build.buildScanLink, 1, Integer::sum);
+            }
+        }
+
+        List<String> pages = new ArrayList<>();
+        Page page = new Page();
+
+        for (BuildScanStatus build : builds) {
+            boolean sharedLink = build.buildScanLink != null && linkOccurrences.get(build.buildScanLink) > 1;
+
+            if (!page.fits(build, sharedLink) && !page.isEmpty()) {
+                pages.add(page.toString());
+                page = new Page();
+            }
+
+            page.add(build, sharedLink);
+        }
+
+        pages.add(page.toString());
+
+        return pages;
+    }
+
+    private class Page {
+
+        private final StringBuilder rows = new StringBuilder(Math.min(maxTextSize, 16 * 1024));
+        private final Map<String, Integer> references = new LinkedHashMap<>();
+        /**
+         * The rows are measured as rendered so that the size can't drift from the format.
+         */
+        private final StringBuilder scratch = new StringBuilder(256);
+        private int size = encodedSize(header);
+
+        private boolean isEmpty() {
+            return rows.isEmpty();
+        }
+
+        private boolean fits(BuildScanStatus build, boolean sharedLink) {
+            scratch.setLength(0);
+            int definitionSize = appendRow(scratch, build, sharedLink);
+            return size + encodedSize(scratch, 0, scratch.length()) + definitionSize <= maxTextSize;
+        }
+
+        private void add(BuildScanStatus build, boolean sharedLink) {
+            int start = rows.length();
+            int definitionSize = appendRow(rows, build, sharedLink);
+            size += encodedSize(rows, start, rows.length()) + definitionSize;
+
+            if (sharedLink) {
+                references.putIfAbsent(build.buildScanLink, references.size() + 1);
+            }
+        }
+
+        /**
+         * Appends the row without defining its reference.
+         *
+         * @return the size of the definition of its reference if it is not already defined on this page, 0 otherwise
+         */
+        private int appendRow(StringBuilder output, BuildScanStatus build, boolean sharedLink) {
+            output.append("| ").append(getConclusionEmoji(build.buildFailure)).append(" | ").append(jobName(build))
+                    .append(" | ").append(detailCells(build));
+
+            int definitionSize = 0;
+            if (build.buildScanLink == null) {
+                output.append(":question:");
+            } else if (sharedLink) {
+                Integer reference = references.get(build.buildScanLink);
+                if (reference == null) {
+                    reference = references.size() + 1;
+                    StringBuilder definition = new StringBuilder();
+                    appendDefinition(definition, reference, build.buildScanLink);
+                    // the blank line separating the table from the definitions comes with the first definition
+                    definitionSize = encodedSize(definition, 0, definition.length()) + (references.isEmpty() ? 1 : 0);
+                }
+                output.append("[:mag:][").append(reference).append(']');
+            } else {
+                output.append("[:mag:](").append(build.buildScanLink).append(')');
+            }
+            output.append(" |\n");
+
+            return definitionSize;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder page = new StringBuilder(size);
+            page.append(header).append(rows);
+
+            if (!references.isEmpty()) {
+                page.append('\n');
+                for (Map.Entry<String, Integer> reference : references.entrySet()) {
+                    appendDefinition(page, reference.getValue(), reference.getKey());
+                }
+            }
+
+            return page.toString();
+        }
+    }
+
+    private static void appendDefinition(StringBuilder output, int reference, String buildScanLink) {
+        output.append('[').append(reference).append("]: ").append(buildScanLink).append('\n');
+    }
+
+    /**
+     * @return the cells of the details, each followed by its separator, empty if there are no details to render
+     */
+    private String detailCells(BuildScanStatus build) {
+        if (details.isEmpty()) {
+            return "";
+        }
+
+        BuildScanDetails buildDetails = build.buildScanLink != null ? details.get(build.buildScanLink) : null;
+        if (buildDetails == null) {
+            return NO_DETAIL + " | " + NO_DETAIL + " | " + NO_DETAIL + " | ";
+        }
+
+        return formatDuration(buildDetails.buildDurationMillis) + " | " + formatTests(buildDetails) + " | "
+                + (buildDetails.cacheHitRatio != null ? Math.round(buildDetails.cacheHitRatio * 100) + "%" : NO_DETAIL)
+                + " | ";
+    }
+
+    static String formatDuration(Long durationMillis) {
+        if (durationMillis == null) {
+            return NO_DETAIL;
+        }
+
+        long seconds = Math.round(durationMillis / 1000.0);
+        if (seconds < 60) {
+            return seconds + "s";
+        }
+        if (seconds < 3600) {
+            return (seconds / 60) + "m " + (seconds % 60) + "s";
+        }
+        return (seconds / 3600) + "h " + (seconds % 3600 / 60) + "m";
+    }
+
+    private static String formatTests(BuildScanDetails buildDetails) {
+        if (buildDetails.tests == null) {
+            return NO_DETAIL;
+        }
+        if (buildDetails.failedTests != null && buildDetails.failedTests > 0) {
+            return buildDetails.tests + " (" + buildDetails.failedTests + " failed)";
+        }
+        return String.valueOf(buildDetails.tests);
+    }
+
+    private static String jobName(BuildScanStatus build) {
+        if (build.jobName.length() <= MAX_JOB_NAME_LENGTH) {
+            return build.jobName;
+        }
+        int end = MAX_JOB_NAME_LENGTH - 1;
+        if (Character.isHighSurrogate(build.jobName.charAt(end - 1))) {
+            end--;
+        }
+        return build.jobName.substring(0, end) + "…";
+    }
+
+    static String getConclusionEmoji(Boolean buildFailure) {
+        if (buildFailure == null) {
+            return ":question:";
+        }
+
+        if (buildFailure) {
+            return "✖";
+        }
+
+        return ":heavy_check_mark:";
+    }
+
+    static int encodedSize(CharSequence value) {
+        return encodedSize(value, 0, value.length());
+    }
+
+    private static int encodedSize(CharSequence value, int start, int end) {
+        int size = 0;
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                size++;
+            } else if (c < 0x800) {
+                size += 2;
+            } else if (Character.isSurrogate(c)) {
+                // a surrogate pair is encoded on 4 bytes
+                size += 2;
+            } else {
+                size += 3;
+            }
+        }
+        return size;
+    }
+}
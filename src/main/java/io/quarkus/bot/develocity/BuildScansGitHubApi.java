@@ -0,0 +1,59 @@
+package io.quarkus.bot.develocity;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import io.quarkus.bot.concurrent.TaskScope;
+
+/**
+ * The GitHub operations needed to inject the build scans, implemented on top of the REST or the GraphQL API.
+ * <p>
+ * Implementations are stateful: {@link #load(int, long, TaskScope)} has to be called first.
+ */
+interface BuildScansGitHubApi {
+
+    /**
+     * Loads the pull request and the workflow run, the independent calls are forked in the given scope.
+     */
+    Target load(int prNumber, long workflowRunId, TaskScope scope) throws IOException;
+
+    /**
+     * Creates a completed check run with a neutral conclusion.
+     *
+     * @param externalId identifies the check run so that we can find it if we don't know whether the creation succeeded
+     * @return the HTML URL of the check run
+     */
+    String createCheckRun(Target target, String name, String externalId, String title, String summary, String text)
+            throws IOException;
+
+    /**
+     * @return the URL of the check run with the given external id, if it exists
+     */
+    Optional<String> findCheckRun(Target target, String name, String externalId) throws IOException;
+
+    /**
+     * Looks for the most recent comment containing one of the markers. Called repeatedly while waiting for the report.
+     */
+    Optional<ReportComment> findReportComment(Target target, List<String> markers) throws IOException;
+
+    /**
+     * Checks whether the report might still be worth waiting for: the workflow run might have been cancelled or re-run, the
+     * pull request might have been closed or might have a new head commit. Called on each poll while waiting for the report.
+     *
+     * @return why the report is not worth waiting for anymore, if it is not
+     */
+    Optional<String> findAbortReason(Target target) throws IOException;
+
+    record Target(int prNumber, String pullRequestUrl, long workflowRunId, Date workflowRunCreatedAt, String headSha,
+            boolean cancelled) {
+    }
+
+    interface ReportComment {
+
+        String body();
+
+        void update(String body) throws IOException;
+    }
+}
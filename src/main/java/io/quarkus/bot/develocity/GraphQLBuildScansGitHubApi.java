@@ -0,0 +1,341 @@
+package io.quarkus.bot.develocity;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.bot.concurrent.TaskScope;
+import io.quarkus.bot.github.GitHubGraphQLClient;
+
+/**
+ * Fetches the pull request, the workflow run and the most recently updated comments in a single query, and uses mutations
+ * for the writes.
+ * <p>
+ * GraphQL requests are POST requests so, contrary to the REST API, they can't be conditional: each lookup of the report
+ * comment costs rate limit points even if nothing changed.
+ */
+class GraphQLBuildScansGitHubApi implements BuildScansGitHubApi {
+
+    static final int COMMENTS = 100;
+
+    static final String LOAD_QUERY = """
+            query($owner: String!, $name: String!, $prNumber: Int!, $workflowRunUrl: URI!, $comments: Int!) {
+              repository(owner: $owner, name: $name) {
+                id
+                pullRequest(number: $prNumber) {
+                  id
+                  number
+                  url
+                  comments(first: $comments, orderBy: {field: UPDATED_AT, direction: DESC}) {
+                    nodes {
+                      id
+                      body
+                      updatedAt
+                    }
+                    pageInfo {
+                      hasNextPage
+                      endCursor
+                    }
+                  }
+                }
+              }
+              resource(url: $workflowRunUrl) {
+                ... on WorkflowRun {
+                  databaseId
+                  createdAt
+                  checkSuite {
+                    status
+                    conclusion
+                    commit {
+                      oid
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    static final String COMMENTS_QUERY = """
+            query($id: ID!, $comments: Int!, $after: String) {
+              node(id: $id) {
+                ... on PullRequest {
+                  comments(first: $comments, after: $after, orderBy: {field: UPDATED_AT, direction: DESC}) {
+                    nodes {
+                      id
+                      body
+                      updatedAt
+                    }
+                    pageInfo {
+                      hasNextPage
+                      endCursor
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String ABORT_CONDITIONS_QUERY = """
+            query($id: ID!, $workflowRunUrl: URI!) {
+              node(id: $id) {
+                ... on PullRequest {
+                  state
+                  headRefOid
+                }
+              }
+              resource(url: $workflowRunUrl) {
+                ... on WorkflowRun {
+                  checkSuite {
+                    status
+                    conclusion
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String CREATE_CHECK_RUN_MUTATION = """
+            mutation($input: CreateCheckRunInput!) {
+              createCheckRun(input: $input) {
+                checkRun {
+                  url
+                }
+              }
+            }
+            """;
+
+    private static final String CHECK_RUNS_QUERY = """
+            query($owner: String!, $name: String!, $headSha: GitObjectID!, $checkName: String!) {
+              repository(owner: $owner, name: $name) {
+                object(oid: $headSha) {
+                  ... on Commit {
+                    checkSuites(last: 50) {
+                      nodes {
+                        checkRuns(last: 50, filterBy: {checkName: $checkName}) {
+                          nodes {
+                            externalId
+                            url
+                          }
+                        }
+                      }
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String UPDATE_COMMENT_MUTATION = """
+            mutation($id: ID!, $body: String!) {
+              updateIssueComment(input: {id: $id, body: $body}) {
+                issueComment {
+                  id
+                }
+              }
+            }
+            """;
+
+    private final GitHubGraphQLClient client;
+    private final String repositoryName;
+    private final String serverUrl;
+
+    private String repositoryId;
+    private String pullRequestId;
+    private boolean workflowRunCompleted;
+    /**
+     * The first page of comments fetched when loading, consumed by the first lookup.
+     */
+    private JsonNode loadedComments;
+
+    /**
+     * Only the comments updated since the previous lookup are considered.
+     */
+    private Instant since;
+    private ReportComment reportComment;
+
+    GraphQLBuildScansGitHubApi(GitHubGraphQLClient client, String repositoryName, String serverUrl) {
+        this.client = client;
+        this.repositoryName = repositoryName;
+        this.serverUrl = serverUrl;
+    }
+
+    @Override
+    public Target load(int prNumber, long workflowRunId, TaskScope scope) throws IOException {
+        String[] ownerAndName = repositoryName.split("/", 2);
+
+        JsonNode data = client.execute(LOAD_QUERY, Map.of(
+                "owner", ownerAndName[0],
+                "name", ownerAndName[1],
+                "prNumber", prNumber,
+                "workflowRunUrl", serverUrl + "/" + repositoryName + "/actions/runs/" + workflowRunId,
+                "comments", COMMENTS));
+
+        JsonNode repository = data.path("repository");
+        JsonNode pullRequest = repository.path("pullRequest");
+        JsonNode workflowRun = data.path("resource");
+        if (pullRequest.isMissingNode() || pullRequest.isNull()) {
+            throw new IOException("Unable to find pull request #" + prNumber);
+        }
+        if (!workflowRun.hasNonNull("databaseId")) {
+            throw new IOException("Unable to find workflow run " + workflowRunId);
+        }
+
+        repositoryId = repository.path("id").asText();
+        pullRequestId = pullRequest.path("id").asText();
+        loadedComments = pullRequest.path("comments");
+
+        JsonNode checkSuite = workflowRun.path("checkSuite");
+        workflowRunCompleted = "COMPLETED".equals(checkSuite.path("status").asText());
+        since = Instant.parse(workflowRun.path("createdAt").asText());
+
+        return new Target(pullRequest.path("number").asInt(), pullRequest.path("url").asText(), workflowRunId,
+                Date.from(since),
+                checkSuite.path("commit").path("oid").asText(),
+                "CANCELLED".equals(checkSuite.path("conclusion").asText()));
+    }
+
+    @Override
+    public String createCheckRun(Target target, String name, String externalId, String title, String summary, String text)
+            throws IOException {
+        JsonNode data = client.execute(CREATE_CHECK_RUN_MUTATION, Map.of("input", Map.of(
+                "repositoryId", repositoryId,
+                "headSha", target.headSha(),
+                "name", name,
+                "externalId", externalId,
+                "status", "COMPLETED",
+                "conclusion", "NEUTRAL",
+                "completedAt", Instant.now().toString(),
+                "output", Map.of("title", title, "summary", summary, "text", text))));
+
+        return data.path("createCheckRun").path("checkRun").path("url").asText();
+    }
+
+    @Override
+    public Optional<String> findCheckRun(Target target, String name, String externalId) throws IOException {
+        String[] ownerAndName = repositoryName.split("/", 2);
+
+        JsonNode checkSuites = client.execute(CHECK_RUNS_QUERY, Map.of(
+                "owner", ownerAndName[0],
+                "name", ownerAndName[1],
+                "headSha", target.headSha(),
+                "checkName", name)).path("repository").path("object").path("checkSuites").path("nodes");
+
+        for (JsonNode checkSuite : checkSuites) {
+            for (JsonNode checkRun : checkSuite.path("checkRuns").path("nodes")) {
+                if (externalId.equals(checkRun.path("externalId").asText(null))) {
+                    return Optional.of(checkRun.path("url").asText());
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Comments are listed from the most recently updated so we can stop at the first comment updated before the previous
+     * lookup, or before the creation of the workflow run for the first one, whatever the number of comments of the pull
+     * request.
+     */
+    @Override
+    public Optional<ReportComment> findReportComment(Target target, List<String> markers) throws IOException {
+        JsonNode comments = loadedComments;
+        loadedComments = null;
+        Instant latestUpdatedAt = since;
+
+        String after = null;
+        do {
+            if (comments == null) {
+                Map<String, Object> variables = new HashMap<>();
+                variables.put("id", pullRequestId);
+                variables.put("comments", COMMENTS);
+                variables.put("after", after);
+
+                comments = client.execute(COMMENTS_QUERY, variables).path("node").path("comments");
+            }
+
+            for (JsonNode comment : comments.path("nodes")) {
+                Instant updatedAt = Instant.parse(comment.path("updatedAt").asText());
+                if (updatedAt.isBefore(since)) {
+                    return finishLookup(latestUpdatedAt);
+                }
+                if (updatedAt.isAfter(latestUpdatedAt)) {
+                    latestUpdatedAt = updatedAt;
+                }
+
+                String body = comment.path("body").asText(null);
+                if (RestBuildScansGitHubApi.containsAny(body, markers)) {
+                    reportComment = new GraphQLReportComment(comment.path("id").asText(), body);
+                    return finishLookup(latestUpdatedAt);
+                }
+            }
+
+            JsonNode pageInfo = comments.path("pageInfo");
+            after = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText() : null;
+            comments = null;
+        } while (after != null);
+
+        return finishLookup(latestUpdatedAt);
+    }
+
+    private Optional<ReportComment> finishLookup(Instant latestUpdatedAt) {
+        since = latestUpdatedAt;
+        return Optional.ofNullable(reportComment);
+    }
+
+    /**
+     * A single query for the pull request and the workflow run.
+     */
+    @Override
+    public Optional<String> findAbortReason(Target target) throws IOException {
+        JsonNode data = client.execute(ABORT_CONDITIONS_QUERY, Map.of(
+                "id", pullRequestId,
+                "workflowRunUrl", serverUrl + "/" + repositoryName + "/actions/runs/" + target.workflowRunId()));
+
+        JsonNode checkSuite = data.path("resource").path("checkSuite");
+        if ("CANCELLED".equals(checkSuite.path("conclusion").asText())) {
+            return Optional.of("the workflow run has been cancelled");
+        }
+        // GraphQL doesn't expose the attempts, a re-run makes the check suite pending again
+        if (workflowRunCompleted && checkSuite.hasNonNull("status")
+                && !"COMPLETED".equals(checkSuite.path("status").asText())) {
+            return Optional.of("the workflow run has been re-run");
+        }
+
+        JsonNode pullRequest = data.path("node");
+        if (pullRequest.hasNonNull("state") && !"OPEN".equals(pullRequest.path("state").asText())) {
+            return Optional.of("the pull request has been closed");
+        }
+        if (pullRequest.hasNonNull("headRefOid") && !target.headSha().equals(pullRequest.path("headRefOid").asText())) {
+            return Optional.of("the pull request has a new head commit " + pullRequest.path("headRefOid").asText());
+        }
+
+        return Optional.empty();
+    }
+
+    private class GraphQLReportComment implements ReportComment {
+
+        private final String id;
+        private final String body;
+
+        private GraphQLReportComment(String id, String body) {
+            this.id = id;
+            this.body = body;
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public void update(String body) throws IOException {
+            // setting the same body twice is harmless
+            client.execute(UPDATE_COMMENT_MUTATION, Map.of("id", id, "body", body), true);
+        }
+    }
+}
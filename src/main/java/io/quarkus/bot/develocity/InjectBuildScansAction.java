@@ -1,17 +1,16 @@
 package io.quarkus.bot.develocity;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InterruptedIOException;
 import java.nio.file.Path;
 import java.time.Duration;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.OptionalLong;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.TreeSet;
 import java.util.concurrent.Callable;
 import java.util.stream.Collectors;
@@ -20,27 +19,40 @@ import jakarta.inject.Inject;
 
 import org.awaitility.Awaitility;
 import org.awaitility.core.ConditionTimeoutException;
-import org.kohsuke.github.GHCheckRun;
-import org.kohsuke.github.GHCheckRunBuilder.Output;
-import org.kohsuke.github.GHIssueComment;
-import org.kohsuke.github.GHPullRequest;
-import org.kohsuke.github.GHRepository;
-import org.kohsuke.github.GHWorkflowRun;
-import org.kohsuke.github.GHWorkflowRun.Conclusion;
-import org.kohsuke.github.GitHub;
+import org.kohsuke.github.HttpException;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
 import io.quarkiverse.githubaction.Action;
 import io.quarkiverse.githubaction.Commands;
 import io.quarkiverse.githubaction.Context;
 import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.batch.Batch;
+import io.quarkus.bot.concurrent.TaskScope.Subtask;
+import io.quarkus.bot.concurrent.TaskScope;
+import io.quarkus.bot.develocity.BuildScanEnricher.BuildScanDetails;
+import io.quarkus.bot.develocity.BuildScansGitHubApi.ReportComment;
+import io.quarkus.bot.develocity.BuildScansGitHubApi.Target;
+import io.quarkus.bot.develocity.JobDurationHistory.DurationStats;
+import io.quarkus.bot.develocity.JobDurationHistory.JobRun;
+import io.quarkus.bot.develocity.JobDurationHistory.Outcome;
+import io.quarkus.bot.github.CommentHash;
+import io.quarkus.bot.github.GitHubClientFactory;
+import io.quarkus.bot.metrics.ActionMetrics;
+import io.quarkus.bot.metrics.ActionMetrics.Phase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 
 public class InjectBuildScansAction {
 
     public static final String WORKFLOW_RUN_ID_MARKER = "<!-- Build-Reporter/workflow-run-id:%1$s -->";
     public static final String BUILD_SCANS_CHECK_RUN_MARKER = "<!-- Build-Reporter/build-scans-check-run -->";
     private static final String BUILD_SCANS = "Build scans";
+    private static final int CHECK_RUN_CREATION_ATTEMPTS = 3;
+    private static final Duration CHECK_RUN_CREATION_RETRY_DELAY = Duration.ofSeconds(2);
+    private static final int DEFAULT_REGRESSION_THRESHOLD = 20;
+    private static final int MAX_RENDERED_REGRESSIONS = 50;
+    private static final CommentHash BUILD_SCANS_HASH = new CommentHash("Build-Reporter/build-scans-hash");
 
     @Deprecated(forRemoval = true)
     private static final String OLD_WORKFLOW_RUN_ID_MARKER = "<!-- Quarkus-GitHub-Bot/workflow-run-id:%1$s -->";
@@ -50,20 +62,28 @@ public class InjectBuildScansAction {
     @Inject
     ObjectMapper objectMapper;
 
-    @Action("inject-build-scans")
-    void injectBuildScans(Context context, Commands commands, Inputs inputs, GitHub github) {
-        Path buildMetadataJson = null;
+    @Inject
+    GitHubClientFactory gitHubClientFactory;
 
-        Optional<String> buildMetadataFilePath = inputs.get("build-metadata-file-path");
-        if (buildMetadataFilePath.isPresent()) {
-            buildMetadataJson = Path.of(buildMetadataFilePath.get());
-            if (!Files.isReadable(buildMetadataJson)) {
-                commands.warning(buildMetadataJson + " is not readable, ignoring");
-                return;
+    @Inject
+    ActionMetrics actionMetrics;
+
+    @Action("inject-build-scans")
+    void injectBuildScans(Context context, Commands commands, Inputs inputs) {
+        try {
+            if (!Batch.runIfBatch("inject-build-scans", objectMapper, commands, inputs, Set.of(),
+                    (itemCommands, itemInputs) -> doInjectBuildScans(context, itemCommands, itemInputs))) {
+                doInjectBuildScans(context, commands, inputs);
             }
+        } finally {
+            actionMetrics.publish("inject-build-scans", commands, inputs);
         }
+    }
 
-        if (buildMetadataJson == null) {
+    @SuppressWarnings("try")
+    private void doInjectBuildScans(Context context, Commands commands, Inputs inputs) {
+        Optional<String> buildMetadataFilePath = inputs.get("build-metadata-file-path");
+        if (buildMetadataFilePath.isEmpty()) {
             commands.warning("Build metadata file path input is not provided, ignoring");
             return;
         }
@@ -75,74 +95,137 @@ public class InjectBuildScansAction {
         }
         long workflowRunId = workflowRunIdInput.getAsLong();
 
+        JobOrder jobOrder = JobOrder.defaults();
+        Optional<String> jobOrderRulesFile = inputs.get("job-order-rules-file");
+        if (jobOrderRulesFile.isPresent()) {
+            try {
+                jobOrder = JobOrder.read(objectMapper, Path.of(jobOrderRulesFile.get()));
+            } catch (IOException e) {
+                commands.warning("Unable to read the job order rules from " + jobOrderRulesFile.get()
+                        + ", using the default rules: " + e.getMessage());
+            }
+        }
+
+        BuildMetadataReader buildMetadataReader = new BuildMetadataReader(objectMapper.getFactory(), jobOrder);
+
         BuildScanStatuses statuses;
-        try {
-            statuses = objectMapper.readValue(buildMetadataJson.toFile(), BuildScanStatuses.class);
+        try (Phase parsePhase = actionMetrics.phase("parse")) {
+            List<Path> buildMetadataFiles = buildMetadataReader.resolve(buildMetadataFilePath.get());
+            if (buildMetadataFiles.isEmpty()) {
+                commands.warning("No readable build metadata file found for " + buildMetadataFilePath.get() + ", ignoring");
+                return;
+            }
+
+            statuses = buildMetadataReader.read(buildMetadataFiles);
         } catch (IOException e) {
-            commands.error("Unable to parse " + buildMetadataJson + ": " + e.getMessage());
+            commands.error("Unable to parse " + buildMetadataFilePath.get() + ": " + e.getMessage());
             return;
         }
 
         Map<String, String> buildScanMapping = statuses.builds.stream()
-                .filter(s -> s.jobName != null)
+                .filter(s -> s.jobName != null && s.buildScanLink != null)
                 .collect(Collectors.toMap(s -> s.jobName, s -> s.buildScanLink));
 
-        try {
-            GHRepository repository = github.getRepository(context.getGitHubRepository());
-            GHPullRequest pullRequest = repository.getPullRequest(statuses.prNumber);
-            GHWorkflowRun workflowRun = repository.getWorkflowRun(workflowRunId);
+        ReportCommentPolling reportCommentPolling = ReportCommentPolling.fromInputs(inputs);
+        Optional<BuildScanEnricher> buildScanEnricher = BuildScanEnricher.fromInputs(objectMapper, commands, inputs);
+        Optional<JobDurationHistory> jobDurationHistory = inputs.get("duration-history-file")
+                .map(f -> new JobDurationHistory(Path.of(f),
+                        inputs.getInt("duration-history-window").orElse(JobDurationHistory.DEFAULT_WINDOW)));
+        int regressionThreshold = inputs.getInt("duration-regression-threshold").orElse(DEFAULT_REGRESSION_THRESHOLD);
+        boolean concurrentApiCalls = inputs.getBoolean("concurrent-api-calls").orElse(false);
+        boolean graphQL = "graphql".equalsIgnoreCase(inputs.get("github-api").orElse("rest"));
+
+        // the calls that don't depend on each other are forked in the same scope and run concurrently if enabled
+        try (TaskScope scope = TaskScope.of(concurrentApiCalls, "inject-build-scans")) {
+            BuildScansGitHubApi gitHubApi = null;
+            Target target = null;
+
+            try (Phase lookupPhase = actionMetrics.phase("lookup")) {
+                if (graphQL) {
+                    try {
+                        gitHubApi = new GraphQLBuildScansGitHubApi(
+                                gitHubClientFactory.createGraphQL(context, commands, inputs), context.getGitHubRepository(),
+                                context.getGitHubServerUrl());
+                        target = gitHubApi.load(statuses.prNumber, workflowRunId, scope);
+                    } catch (IOException e) {
+                        commands.warning(
+                                "Unable to load the pull request and the workflow run with GraphQL, falling back to REST: "
+                                        + e.getMessage());
+                    }
+                }
+                if (target == null) {
+                    gitHubApi = new RestBuildScansGitHubApi(gitHubClientFactory.create(context, commands, inputs),
+                            context.getGitHubRepository());
+                    target = gitHubApi.load(statuses.prNumber, workflowRunId, scope);
+                }
+            }
 
-            if (workflowRun.getConclusion() == Conclusion.CANCELLED) {
+            if (target.cancelled()) {
                 return;
             }
 
-            Optional<GHCheckRun> buildScansCheckRun = createBuildScansOutput(commands, workflowRun, statuses);
+            BuildScansGitHubApi api = gitHubApi;
+            Target loadedTarget = target;
+            Subtask<Optional<String>> buildScansCheckRunSubtask = scope
+                    .fork(() -> createBuildScansOutput(commands, api, loadedTarget, statuses, buildScanEnricher,
+                            jobDurationHistory, regressionThreshold));
+            Subtask<Optional<ReportComment>> reportCommentSubtask = scope
+                    .fork(() -> getPullRequestComment(commands, api, loadedTarget, reportCommentPolling));
+            // both subtasks report their own errors, an unexpected failure cancels the other one and is rethrown here
+            scope.join().throwIfFailed();
 
-            if (buildScansCheckRun.isPresent()) {
+            Optional<String> buildScansCheckRunUrl = buildScansCheckRunSubtask.get();
+
+            if (buildScansCheckRunUrl.isPresent()) {
                 commands.appendJobSummary("Develocity build scans have been published for pull request [#"
-                        + pullRequest.getNumber() + "](" + pullRequest.getHtmlUrl() + ")\n\n"
-                        + "Check run: " + buildScansCheckRun.get().getHtmlUrl());
+                        + target.prNumber() + "](" + target.pullRequestUrl() + ")\n\n"
+                        + "Check run: " + buildScansCheckRunUrl.get());
             }
 
-            updateComment(commands, pullRequest, workflowRun, buildScanMapping, buildScansCheckRun);
+            updateComment(commands, reportCommentSubtask.get(), buildScanMapping, buildScansCheckRunUrl);
 
             // note for future self: it is not possible to update an existing check run created by another GitHub App
         } catch (IOException e) {
             commands.error("Error trying to attach build scans to pull request #" + statuses.prNumber + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            commands.error("Unexpected error trying to attach build scans to pull request #" + statuses.prNumber + ": "
+                    + e.getMessage());
+            e.printStackTrace();
         }
     }
 
-    private void updateComment(Commands commands, GHPullRequest pullRequest, GHWorkflowRun workflowRun,
-            Map<String, String> buildScanMapping, Optional<GHCheckRun> buildScansCheckRun) {
-        try {
-            Optional<GHIssueComment> reportCommentCandidate = getPullRequestComment(commands, workflowRun, pullRequest);
-
+    @SuppressWarnings("try")
+    private void updateComment(Commands commands, Optional<ReportComment> reportCommentCandidate,
+            Map<String, String> buildScanMapping, Optional<String> buildScansCheckRunUrl) {
+        try (Phase updatePhase = actionMetrics.phase("update")) {
             if (reportCommentCandidate.isEmpty()) {
-                commands.warning("Unable to find a report comment to update");
+                // the lookup already reported why
                 return;
             }
 
-            GHIssueComment reportComment = reportCommentCandidate.get();
+            ReportComment reportComment = reportCommentCandidate.get();
 
-            String updatedCommentBody = reportComment.getBody().lines().map(line -> {
-                for (Entry<String, String> buildScanEntry : buildScanMapping.entrySet()) {
-                    if (line.contains("| " + buildScanEntry.getKey() + " |")) {
-                        return line.replace(":construction:", "[:mag:](" + buildScanEntry.getValue() + ")");
-                    }
-                }
+            // if the comment already contains the links we would inject, there is no need to rewrite it
+            String hash = getBuildScansHash(buildScanMapping, buildScansCheckRunUrl.isPresent());
+            if (BUILD_SCANS_HASH.isUpToDate(reportComment.body(), hash)) {
+                actionMetrics.recordWrite(true);
+                return;
+            }
 
-                return line;
-            }).collect(Collectors.joining("\n"));
+            String updatedCommentBody = new BuildScanLinksRewriter(buildScanMapping).rewrite(reportComment.body());
 
-            if (buildScansCheckRun.isPresent()) {
-                String buildScansLink = "You can consult the [Develocity build scans](" + buildScansCheckRun.get().getHtmlUrl() + ").";
+            if (buildScansCheckRunUrl.isPresent()) {
+                String buildScansLink = "You can consult the [Develocity build scans](" + buildScansCheckRunUrl.get() + ").";
 
                 updatedCommentBody = updatedCommentBody.replace(BUILD_SCANS_CHECK_RUN_MARKER, buildScansLink);
                 updatedCommentBody = updatedCommentBody.replace(OLD_BUILD_SCANS_CHECK_RUN_MARKER, buildScansLink);
             }
 
-            if (!updatedCommentBody.equals(reportComment.getBody())) {
-                reportComment.update(updatedCommentBody);
+            if (!updatedCommentBody.equals(reportComment.body())) {
+                reportComment.update(BUILD_SCANS_HASH.mark(updatedCommentBody, hash));
+                actionMetrics.recordWrite(false);
+            } else {
+                actionMetrics.recordWrite(true);
             }
         } catch (Exception e) {
             commands.error("Unable to update the PR comment: " + e.getMessage());
@@ -150,102 +233,269 @@ public class InjectBuildScansAction {
         }
     }
 
-    private static Optional<GHIssueComment> getPullRequestComment(Commands commands, GHWorkflowRun workflowRun, GHPullRequest pullRequest) {
-        try {
-            PullRequestReportIsCreated pullRequestReportIsCreated = new PullRequestReportIsCreated(workflowRun, pullRequest);
+    /**
+     * Each run creates a new check run so its URL is not part of the hash: a comment already pointing to a build scans check
+     * run of this workflow run is up to date.
+     */
+    private static String getBuildScansHash(Map<String, String> buildScanMapping, boolean buildScansCheckRunLink) {
+        StringBuilder content = new StringBuilder();
+        new TreeMap<>(buildScanMapping)
+                .forEach((jobName, buildScanLink) -> content.append(jobName).append('\t').append(buildScanLink).append('\n'));
+        content.append("check-run\t").append(buildScansCheckRunLink);
+
+        return CommentHash.hash(content.toString());
+    }
+
+    @SuppressWarnings("try")
+    private Optional<ReportComment> getPullRequestComment(Commands commands, BuildScansGitHubApi gitHubApi, Target target,
+            ReportCommentPolling reportCommentPolling) {
+        try (Phase waitPhase = actionMetrics.phase("wait")) {
+            PullRequestReportIsCreated pullRequestReportIsCreated = new PullRequestReportIsCreated(gitHubApi, target);
 
+            // polling relies on conditional requests so polling often is cheap as long as nothing changed
             Awaitility.await()
-                    .atMost(Duration.ofMinutes(15))
-                    .pollDelay(Duration.ofMinutes(2))
-                    .pollInterval(Duration.ofMinutes(3))
+                    .atMost(reportCommentPolling.timeout())
+                    .pollDelay(reportCommentPolling.delay())
+                    .pollInterval(reportCommentPolling.pollInterval())
                     .until(pullRequestReportIsCreated);
 
+            Optional<String> abortReason = pullRequestReportIsCreated.getAbortReason();
+            if (abortReason.isPresent()) {
+                commands.notice("Stopped waiting for the report comment: " + abortReason.get());
+                commands.appendJobSummary("Stopped waiting for the report comment of pull request [#" + target.prNumber()
+                        + "](" + target.pullRequestUrl() + "): " + abortReason.get() + ".");
+            }
+
             return pullRequestReportIsCreated.getReportComment();
         } catch (ConditionTimeoutException e) {
             commands.warning("Unable to find a report comment to update");
+            commands.appendJobSummary("Stopped waiting for the report comment of pull request [#" + target.prNumber() + "]("
+                    + target.pullRequestUrl() + "): not found after " + reportCommentPolling.timeout().toSeconds()
+                    + " seconds.");
+            return Optional.empty();
+        } catch (Exception e) {
+            commands.error("Unable to update the PR comment: " + e.getMessage());
+            e.printStackTrace();
             return Optional.empty();
         }
     }
 
-    private static class PullRequestReportIsCreated implements Callable<Boolean> {
+    static class PullRequestReportIsCreated implements Callable<Boolean> {
 
-        private final GHWorkflowRun workflowRun;
-        private final GHPullRequest pullRequest;
+        private final BuildScansGitHubApi gitHubApi;
+        private final Target target;
+        private final List<String> workflowRunIdMarkers;
 
-        private GHIssueComment reportComment;
+        private ReportComment reportComment;
+        private String abortReason;
 
-        private PullRequestReportIsCreated(GHWorkflowRun workflowRun, GHPullRequest pullRequest) {
-            this.workflowRun = workflowRun;
-            this.pullRequest = pullRequest;
+        PullRequestReportIsCreated(BuildScansGitHubApi gitHubApi, Target target) {
+            this.gitHubApi = gitHubApi;
+            this.target = target;
+            this.workflowRunIdMarkers = List.of(String.format(WORKFLOW_RUN_ID_MARKER, target.workflowRunId()),
+                    String.format(OLD_WORKFLOW_RUN_ID_MARKER, target.workflowRunId()));
         }
 
         @Override
         public Boolean call() throws Exception {
-            List<GHIssueComment> commentsSinceWorkflowRunStarted = new ArrayList<>(pullRequest.queryComments()
-                    .since(workflowRun.getCreatedAt())
-                    .list().toList());
-            Collections.reverse(commentsSinceWorkflowRunStarted);
-
-            String workflowRunIdMarker = String.format(WORKFLOW_RUN_ID_MARKER, workflowRun.getId());
-            String oldWorkflowRunIdMarker = String.format(OLD_WORKFLOW_RUN_ID_MARKER, workflowRun.getId());
-
-            Optional<GHIssueComment> reportCommentCandidate = commentsSinceWorkflowRunStarted.stream()
-                    .filter(c -> c.getBody().contains(workflowRunIdMarker) || c.getBody().contains(oldWorkflowRunIdMarker))
-                    .findFirst();
-
-            if (reportCommentCandidate.isEmpty()) {
-                return false;
+            reportComment = gitHubApi.findReportComment(target, workflowRunIdMarkers).orElse(null);
+            if (reportComment != null) {
+                return true;
             }
 
-            reportComment = reportCommentCandidate.get();
+            // no need to hold the runner if the report will never come or is not relevant anymore
+            try {
+                abortReason = gitHubApi.findAbortReason(target).orElse(null);
+            } catch (IOException e) {
+                // we will check again at the next poll
+            }
 
-            return true;
+            return abortReason != null;
         }
 
-        public Optional<GHIssueComment> getReportComment() {
+        public Optional<ReportComment> getReportComment() {
             return Optional.ofNullable(reportComment);
         }
-    }
 
-    private Optional<GHCheckRun> createBuildScansOutput(Commands commands, GHWorkflowRun workflowRun, BuildScanStatuses statuses) {
-        try {
-            Output output = new Output(BUILD_SCANS, "You will find below links to the Develocity build scans for this workflow run.");
+        public Optional<String> getAbortReason() {
+            return Optional.ofNullable(abortReason);
+        }
+    }
 
-            StringBuilder buildScans = new StringBuilder();
-            buildScans.append("| Status | Name | Build scan |\n");
-            buildScans.append("| :-:  | --  | :-:  |\n");
+    /**
+     * @return the URL of the first check run, the table is split across several check runs if it doesn't fit in one
+     */
+    @SuppressWarnings("try")
+    private Optional<String> createBuildScansOutput(Commands commands, BuildScansGitHubApi gitHubApi, Target target,
+            BuildScanStatuses statuses, Optional<BuildScanEnricher> buildScanEnricher,
+            Optional<JobDurationHistory> jobDurationHistory, int regressionThreshold) {
+        Map<String, BuildScanDetails> details = enrich(commands, statuses, buildScanEnricher);
+        String regressions = findRegressions(commands, target, statuses, details, jobDurationHistory, regressionThreshold);
+
+        String firstCheckRunUrl = null;
+        try (Phase checkRunPhase = actionMetrics.phase("check-run")) {
+            List<String> pages = new BuildScansCheckRunRenderer(BuildScansCheckRunRenderer.MAX_TEXT_SIZE, details)
+                    .render(statuses.builds);
+
+            for (int i = 0; i < pages.size(); i++) {
+                String name = pages.size() == 1 ? BUILD_SCANS : BUILD_SCANS + " (" + (i + 1) + "/" + pages.size() + ")";
+                String summary = "You will find below links to the Develocity build scans for this workflow run.";
+                if (pages.size() > 1) {
+                    summary += "\n\nThere are too many jobs to fit in one check run, this is part " + (i + 1) + " of "
+                            + pages.size() + ".";
+                }
+                if (i == 0) {
+                    summary += regressions;
+                }
 
-            for (BuildScanStatus build : statuses.builds) {
-                buildScans.append("| ").append(getConclusionEmoji(build.buildFailure)).append(" | ").append(build.jobName)
-                        .append(" | [:mag:](").append(build.buildScanLink).append(") |\n");
+                String checkRunUrl = createCheckRun(gitHubApi, target, name,
+                        "build-scans-" + target.workflowRunId() + "-" + (i + 1), summary, pages.get(i));
+                if (firstCheckRunUrl == null) {
+                    firstCheckRunUrl = checkRunUrl;
+                }
             }
 
-            output.withText(buildScans.toString());
-
-            return Optional.of(workflowRun.getRepository().createCheckRun(BUILD_SCANS, workflowRun.getHeadSha())
-                    .add(output)
-                    .withConclusion(GHCheckRun.Conclusion.NEUTRAL)
-                    .withCompletedAt(new Date())
-                    .create());
+            return Optional.of(firstCheckRunUrl);
         } catch (Exception e) {
             commands.error("Unable to create a check run with build scans: " + e.getMessage());
             e.printStackTrace();
-            return Optional.empty();
+            // the first pages might have been published
+            return Optional.ofNullable(firstCheckRunUrl);
+        }
+    }
+
+    /**
+     * The details are only a nice to have: if they can't be fetched, the table is rendered without them.
+     */
+    @SuppressWarnings("try")
+    private Map<String, BuildScanDetails> enrich(Commands commands, BuildScanStatuses statuses,
+            Optional<BuildScanEnricher> buildScanEnricher) {
+        if (buildScanEnricher.isEmpty()) {
+            return Map.of();
+        }
+
+        try (Phase enrichPhase = actionMetrics.phase("enrich")) {
+            List<String> buildScanLinks = statuses.builds.stream()
+                    .map(s -> s.buildScanLink)
+                    .filter(l -> l != null)
+                    .toList();
+            Map<String, BuildScanDetails> details = buildScanEnricher.get().enrich(buildScanLinks);
+            if (details.size() < buildScanLinks.stream().distinct().count()) {
+                commands.warning("Unable to fetch the details of some build scans from Develocity, they are rendered without");
+            }
+            return details;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            commands.warning("Interrupted while fetching the details of the build scans from Develocity");
+            return Map.of();
+        } catch (Exception e) {
+            commands.warning("Unable to fetch the details of the build scans from Develocity: " + e.getMessage());
+            return Map.of();
         }
     }
 
-    private static String getConclusionEmoji(Boolean buildFailure) {
-        if (buildFailure == null) {
-            return ":question:";
+    /**
+     * Records the durations of the jobs in the history and flags the jobs slower than usual.
+     *
+     * @return the Markdown listing the jobs slower than usual, empty if there are none
+     */
+    @SuppressWarnings("try")
+    private String findRegressions(Commands commands, Target target, BuildScanStatuses statuses,
+            Map<String, BuildScanDetails> details, Optional<JobDurationHistory> jobDurationHistory, int regressionThreshold) {
+        if (jobDurationHistory.isEmpty()) {
+            return "";
+        }
+
+        Map<String, JobRun> runs = new LinkedHashMap<>();
+        for (BuildScanStatus build : statuses.builds) {
+            Long duration = build.duration;
+            if (duration == null && build.buildScanLink != null && details.containsKey(build.buildScanLink)) {
+                duration = details.get(build.buildScanLink).buildDurationMillis;
+            }
+            if (duration != null) {
+                runs.put(build.jobName, new JobRun(duration, Outcome.of(build.buildFailure)));
+            }
+        }
+
+        Map<String, DurationStats> stats;
+        try (Phase historyPhase = actionMetrics.phase("history")) {
+            stats = jobDurationHistory.get().update(target.workflowRunId(), runs);
+        } catch (IOException e) {
+            commands.warning("Unable to update the job duration history: " + e.getMessage());
+            return "";
+        }
+
+        StringBuilder regressions = new StringBuilder();
+        int count = 0;
+        for (Map.Entry<String, JobRun> run : runs.entrySet()) {
+            DurationStats jobStats = stats.get(run.getKey());
+            if (run.getValue().outcome() != Outcome.SUCCESS || jobStats == null
+                    || !JobDurationHistory.isRegression(jobStats, run.getValue().durationMillis(), regressionThreshold)) {
+                continue;
+            }
+            if (count++ < MAX_RENDERED_REGRESSIONS) {
+                regressions.append("| ").append(run.getKey())
+                        .append(" | ").append(BuildScansCheckRunRenderer.formatDuration(run.getValue().durationMillis()))
+                        .append(" | ").append(BuildScansCheckRunRenderer.formatDuration(jobStats.p50Millis()))
+                        .append(" | ").append(BuildScansCheckRunRenderer.formatDuration(jobStats.p90Millis()))
+                        .append(" |\n");
+            }
         }
 
-        if (buildFailure) {
-            return "✖";
+        if (count == 0) {
+            return "";
         }
 
-        return ":heavy_check_mark:";
+        return "\n\n:snail: " + count + (count == 1 ? " job was" : " jobs were") + " more than " + regressionThreshold
+                + "% slower than the median of their last successful runs:\n\n"
+                + "| Name | Duration | Median | p90 |\n"
+                + "| --  | --:  | --:  | --:  |\n"
+                + regressions
+                + (count > MAX_RENDERED_REGRESSIONS ? "\n... and " + (count - MAX_RENDERED_REGRESSIONS) + " more\n" : "");
+    }
+
+    /**
+     * Creating a check run is not idempotent so it is not retried by the connector in case of server errors: the check run
+     * might have been created anyway. We look for it using its external id before trying again.
+     */
+    private static String createCheckRun(BuildScansGitHubApi gitHubApi, Target target, String name, String externalId,
+            String summary, String text) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            try {
+                return gitHubApi.createCheckRun(target, name, externalId, name, summary, text);
+            } catch (IOException e) {
+                if (attempt >= CHECK_RUN_CREATION_ATTEMPTS || e instanceof InterruptedIOException || isClientError(e)) {
+                    throw e;
+                }
+            }
+
+            try {
+                Thread.sleep(CHECK_RUN_CREATION_RETRY_DELAY.toMillis() * attempt);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting to create the check run");
+            }
+
+            try {
+                Optional<String> existingCheckRunUrl = gitHubApi.findCheckRun(target, name, externalId);
+                if (existingCheckRunUrl.isPresent()) {
+                    return existingCheckRunUrl.get();
+                }
+            } catch (IOException e) {
+                // if we can't look for it, we can't do better than trying again
+            }
+        }
     }
 
+    /**
+     * Client errors won't go away by retrying, rate limits have already been retried by the connector.
+     */
+    private static boolean isClientError(IOException e) {
+        return e instanceof HttpException httpException && httpException.getResponseCode() >= 400
+                && httpException.getResponseCode() < 500;
+    }
+
+    @RegisterForReflection
     public static class BuildScanStatuses {
 
         public int prNumber;
@@ -253,6 +503,7 @@ public class InjectBuildScansAction {
         public TreeSet<BuildScanStatus> builds;
     }
 
+    @RegisterForReflection
     public static class BuildScanStatus implements Comparable<BuildScanStatus> {
 
         public String jobName;
@@ -261,16 +512,33 @@ public class InjectBuildScansAction {
 
         public String buildScanLink;
 
+        /**
+         * The duration of the job in milliseconds, if provided by the build metadata.
+         */
+        public Long duration;
+
+        /**
+         * Computed once when the job name is set, as it is used for each comparison.
+         */
+        @JsonIgnore
+        public int order;
+
+        public void setJobName(String jobName) {
+            setJobName(jobName, JobOrder.defaults());
+        }
+
+        public void setJobName(String jobName, JobOrder jobOrder) {
+            this.jobName = jobName;
+            this.order = jobOrder.getOrder(jobName);
+        }
+
         @Override
         public int compareTo(BuildScanStatus o) {
-            int order1 = getOrder(jobName);
-            int order2 = getOrder(o.jobName);
-
-            if (order1 == order2) {
+            if (order == o.order) {
                 return jobName.compareToIgnoreCase(o.jobName);
             }
 
-            return order1 - order2;
+            return Integer.compare(order, o.order);
         }
 
         @Override
@@ -278,57 +546,4 @@ public class InjectBuildScansAction {
             return "BuildScanStatus [jobName=" + jobName + "]";
         }
     }
-
-    private static int getOrder(String jobName) {
-        if (jobName.startsWith("Initial JDK")) {
-            return 1;
-        }
-        if (jobName.startsWith("Calculate Test Jobs")) {
-            return 2;
-        }
-        if (jobName.startsWith("JVM Tests - ")) {
-            if (jobName.contains("Windows")) {
-                return 12;
-            }
-            return 11;
-        }
-        if (jobName.startsWith("Maven Tests - ")) {
-            if (jobName.contains("Windows")) {
-                return 22;
-            }
-            return 21;
-        }
-        if (jobName.startsWith("Gradle Tests - ")) {
-            if (jobName.contains("Windows")) {
-                return 32;
-            }
-            return 31;
-        }
-        if (jobName.startsWith("Devtools Tests - ")) {
-            if (jobName.contains("Windows")) {
-                return 42;
-            }
-            return 41;
-        }
-        if (jobName.startsWith("Kubernetes Tests - ")) {
-            if (jobName.contains("Windows")) {
-                return 52;
-            }
-            return 51;
-        }
-        if (jobName.startsWith("Quickstarts Compilation")) {
-            return 61;
-        }
-        if (jobName.startsWith("MicroProfile TCKs Tests")) {
-            return 71;
-        }
-        if (jobName.startsWith("Native Tests - ")) {
-            if (jobName.contains("Windows")) {
-                return 82;
-            }
-            return 81;
-        }
-
-        return 200;
-    }
 }
@@ -0,0 +1,375 @@
+package io.quarkus.bot.develocity;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the duration and the outcome of each job, run after run, in a compact binary file that can be persisted with
+ * {@code actions/cache} or as an artifact.
+ * <p>
+ * The file is append-only: a header, then records which are either the definition of a job name, assigned the next job
+ * id, or the result of a job for a workflow run (18 bytes). Appending a run only writes its records, and reading the file
+ * is a single sequential pass keeping the last {@code window} successful durations of each job.
+ * <p>
+ * To keep the reads cheap as the history grows, the file is compacted when it contains much more records than the windows
+ * need: it is rewritten with only the successful runs of the windows and the results of the current workflow run. A
+ * truncated record, left behind by an interrupted run, is dropped.
+ */
+public class JobDurationHistory {
+
+    static final int DEFAULT_WINDOW = 50;
+
+    /**
+     * Below this number of successful runs, the percentiles are not meaningful.
+     */
+    static final int MIN_SAMPLES = 5;
+
+    private static final int MAGIC = 0x4A444831; // JDH1
+    private static final int HEADER_SIZE = 4;
+    private static final byte JOB_RECORD = 'J';
+    private static final byte RUN_RECORD = 'R';
+    private static final int RUN_RECORD_SIZE = 1 + 4 + 8 + 4 + 1;
+    private static final int MAX_JOB_NAME_BYTES = 65_535;
+    private static final int COMPACTION_FACTOR = 4;
+
+    /**
+     * Batch items might update the same history concurrently.
+     */
+    private static final Object LOCK = new Object();
+
+    private final Path file;
+    private final int window;
+
+    public JobDurationHistory(Path file, int window) {
+        this.file = file;
+        this.window = Math.max(MIN_SAMPLES, window);
+    }
+
+    /**
+     * Computes the statistics of the jobs from the history, then appends the results of the given workflow run.
+     * <p>
+     * The results of the given workflow run are never part of the statistics and are only appended once, so that running
+     * the action again for the same workflow run doesn't skew the history.
+     *
+     * @param runs the results of the jobs of the workflow run, keyed by job name
+     * @return the statistics of the jobs with a history, keyed by job name
+     */
+    public Map<String, DurationStats> update(long workflowRunId, Map<String, JobRun> runs) throws IOException {
+        synchronized (LOCK) {
+            History history = read(workflowRunId);
+
+            Map<String, DurationStats> stats = new HashMap<>();
+            for (Map.Entry<String, Integer> job : history.jobIds.entrySet()) {
+                Window jobWindow = history.windows.get(job.getValue());
+                if (jobWindow.size > 0) {
+                    stats.put(job.getKey(), jobWindow.stats());
+                }
+            }
+
+            append(history, workflowRunId, runs);
+
+            if (history.runRecords > (long) COMPACTION_FACTOR * window * Math.max(1, history.jobIds.size())) {
+                compact(history, workflowRunId);
+            }
+
+            return stats;
+        }
+    }
+
+    private History read(long workflowRunId) throws IOException {
+        History history = new History();
+        if (!Files.exists(file)) {
+            return history;
+        }
+
+        try (CountingInputStream counting = new CountingInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 64 * 1024));
+                DataInputStream input = new DataInputStream(counting)) {
+            if (input.readInt() != MAGIC) {
+                throw new IOException(file + " is not a job duration history");
+            }
+            history.validLength = counting.count;
+
+            while (true) {
+                int tag = input.read();
+                if (tag == JOB_RECORD) {
+                    String jobName = input.readUTF();
+                    history.define(jobName);
+                } else if (tag == RUN_RECORD) {
+                    int jobId = input.readInt();
+                    long runId = input.readLong();
+                    int durationMillis = input.readInt();
+                    byte outcome = input.readByte();
+                    if (jobId < 0 || jobId >= history.windows.size()) {
+                        break;
+                    }
+
+                    history.runRecords++;
+                    if (runId == workflowRunId) {
+                        history.currentRuns.putIfAbsent(jobId, new JobRun(durationMillis, Outcome.of(outcome)));
+                    } else if (outcome == Outcome.SUCCESS.code) {
+                        history.windows.get(jobId).add(runId, durationMillis);
+                    }
+                } else {
+                    // end of file or garbage left behind by an interrupted run
+                    break;
+                }
+                history.validLength = counting.count;
+            }
+        } catch (EOFException e) {
+            // a truncated record, dropped
+        }
+
+        return history;
+    }
+
+    private void append(History history, long workflowRunId, Map<String, JobRun> runs) throws IOException {
+        ByteArrayOutputStream records = new ByteArrayOutputStream(runs.size() * (RUN_RECORD_SIZE + 32) + HEADER_SIZE);
+        DataOutputStream output = new DataOutputStream(records);
+
+        if (history.validLength == 0) {
+            output.writeInt(MAGIC);
+        }
+
+        for (Map.Entry<String, JobRun> run : runs.entrySet()) {
+            if (run.getValue().durationMillis() < 0
+                    || run.getKey().getBytes(StandardCharsets.UTF_8).length > MAX_JOB_NAME_BYTES) {
+                continue;
+            }
+
+            Integer jobId = history.jobIds.get(run.getKey());
+            if (jobId == null) {
+                jobId = history.define(run.getKey());
+                output.writeByte(JOB_RECORD);
+                output.writeUTF(run.getKey());
+            } else if (history.currentRuns.containsKey(jobId)) {
+                continue;
+            }
+
+            writeRun(output, jobId, workflowRunId, run.getValue().durationMillis(), run.getValue().outcome());
+            history.currentRuns.put(jobId, run.getValue());
+            history.runRecords++;
+        }
+
+        if (records.size() == 0) {
+            return;
+        }
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // drops what an interrupted run might have left behind
+            channel.truncate(history.validLength);
+            channel.position(history.validLength);
+            ByteBuffer buffer = ByteBuffer.wrap(records.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        history.validLength += records.size();
+    }
+
+    /**
+     * The windows don't contain the current workflow run, its results are written after them so that they are not lost and
+     * not appended again if the action runs again for this workflow run.
+     */
+    private void compact(History history, long workflowRunId) throws IOException {
+        Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+
+        try {
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile), 64 * 1024))) {
+                output.writeInt(MAGIC);
+                int newJobId = 0;
+                for (Map.Entry<String, Integer> job : history.jobIds.entrySet()) {
+                    Window jobWindow = history.windows.get(job.getValue());
+                    JobRun currentRun = history.currentRuns.get(job.getValue());
+                    if (jobWindow.size == 0 && currentRun == null) {
+                        continue;
+                    }
+                    output.writeByte(JOB_RECORD);
+                    output.writeUTF(job.getKey());
+                    for (int i = 0; i < jobWindow.size; i++) {
+                        int index = (jobWindow.next - jobWindow.size + i + window) % window;
+                        writeRun(output, newJobId, jobWindow.runIds[index], jobWindow.durations[index], Outcome.SUCCESS);
+                    }
+                    if (currentRun != null) {
+                        writeRun(output, newJobId, workflowRunId, currentRun.durationMillis(), currentRun.outcome());
+                    }
+                    newJobId++;
+                }
+            }
+
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    private static void writeRun(DataOutputStream output, int jobId, long workflowRunId, long durationMillis,
+            Outcome outcome) throws IOException {
+        output.writeByte(RUN_RECORD);
+        output.writeInt(jobId);
+        output.writeLong(workflowRunId);
+        output.writeInt((int) Math.min(durationMillis, Integer.MAX_VALUE));
+        output.writeByte(outcome.code);
+    }
+
+    /**
+     * @return true if the duration is more than {@code thresholdPercent} above the median of the previous successful runs
+     */
+    static boolean isRegression(DurationStats stats, long durationMillis, int thresholdPercent) {
+        return stats.samples() >= MIN_SAMPLES && durationMillis * 100 > stats.p50Millis() * (100L + thresholdPercent);
+    }
+
+    /**
+     * Nearest-rank percentile.
+     */
+    static long percentile(long[] sortedValues, int percentile) {
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedValues.length);
+        return sortedValues[Math.max(0, rank - 1)];
+    }
+
+    public enum Outcome {
+
+        SUCCESS((byte) 0),
+        FAILURE((byte) 1),
+        UNKNOWN((byte) 2);
+
+        private final byte code;
+
+        Outcome(byte code) {
+            this.code = code;
+        }
+
+        static Outcome of(byte code) {
+            for (Outcome outcome : values()) {
+                if (outcome.code == code) {
+                    return outcome;
+                }
+            }
+            return UNKNOWN;
+        }
+
+        static Outcome of(Boolean buildFailure) {
+            if (buildFailure == null) {
+                return UNKNOWN;
+            }
+            return buildFailure ? FAILURE : SUCCESS;
+        }
+    }
+
+    public record JobRun(long durationMillis, Outcome outcome) {
+    }
+
+    /**
+     * The percentiles of the durations of the last successful runs of a job.
+     */
+    public record DurationStats(int samples, long p50Millis, long p90Millis) {
+    }
+
+    private class History {
+
+        private final Map<String, Integer> jobIds = new LinkedHashMap<>();
+        private final List<Window> windows = new ArrayList<>();
+        /**
+         * The results of the current workflow run, keyed by job id.
+         */
+        private final Map<Integer, JobRun> currentRuns = new HashMap<>();
+        private long runRecords;
+        private long validLength;
+
+        private int define(String jobName) {
+            // a job defined twice by concurrent appends keeps its first id
+            Integer existingJobId = jobIds.putIfAbsent(jobName, windows.size());
+            windows.add(existingJobId == null ? new Window() : windows.get(existingJobId));
+            return existingJobId == null ? windows.size() - 1 : existingJobId;
+        }
+    }
+
+    /**
+     * The last successful runs of a job, in a ring buffer.
+     */
+    private class Window {
+
+        private final long[] runIds = new long[window];
+        private final long[] durations = new long[window];
+        private int next;
+        private int size;
+
+        private void add(long runId, long durationMillis) {
+            runIds[next] = runId;
+            durations[next] = durationMillis;
+            next = (next + 1) % window;
+            size = Math.min(size + 1, window);
+        }
+
+        private DurationStats stats() {
+            long[] sortedDurations = new long[size];
+            for (int i = 0; i < size; i++) {
+                sortedDurations[i] = durations[(next - size + i + window) % window];
+            }
+            Arrays.sort(sortedDurations);
+            return new DurationStats(size, percentile(sortedDurations, 50), percentile(sortedDurations, 90));
+        }
+    }
+
+    private static class CountingInputStream extends InputStream {
+
+        private final InputStream delegate;
+        private long count;
+
+        private CountingInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package io.quarkus.bot.develocity;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Orders the jobs from a table of rules: the first rule whose prefix starts the job name, and whose optional
+ * {@code contains} is found in the job name, gives the order of the job.
+ * <p>
+ * The prefixes are compiled into a trie so that the job name is walked only once, whatever the number of rules.
+ */
+public final class JobOrder {
+
+    private static final String DEFAULT_RULES = "develocity/job-order-rules.json";
+
+    private final Node root = new Node();
+    private final int defaultOrder;
+
+    private JobOrder(JobOrderRules rules) {
+        this.defaultOrder = rules.defaultOrder;
+
+        if (rules.rules == null) {
+            return;
+        }
+
+        for (int i = 0; i < rules.rules.size(); i++) {
+            JobOrderRule rule = rules.rules.get(i);
+            if (rule.prefix == null) {
+                rule.prefix = "";
+            }
+
+            Node node = root;
+            for (int j = 0; j < rule.prefix.length(); j++) {
+                node = node.children.computeIfAbsent(rule.prefix.charAt(j), c -> new Node());
+            }
+            node.rules.add(new CompiledRule(i, rule.contains, rule.order));
+        }
+    }
+
+    public static JobOrder defaults() {
+        return DefaultsHolder.DEFAULTS;
+    }
+
+    public static JobOrder read(ObjectMapper objectMapper, Path rulesFile) throws IOException {
+        try (InputStream rulesStream = Files.newInputStream(rulesFile)) {
+            return read(objectMapper, rulesStream);
+        }
+    }
+
+    static JobOrder read(ObjectMapper objectMapper, InputStream rulesStream) throws IOException {
+        return new JobOrder(objectMapper.readValue(rulesStream, JobOrderRules.class));
+    }
+
+    public int getOrder(String jobName) {
+        if (jobName == null) {
+            return defaultOrder;
+        }
+
+        CompiledRule matchingRule = null;
+        Node node = root;
+        int i = 0;
+
+        while (node != null) {
+            for (CompiledRule rule : node.rules) {
+                if ((matchingRule == null || rule.index < matchingRule.index) && rule.matches(jobName)) {
+                    matchingRule = rule;
+                }
+            }
+            node = i < jobName.length() ? node.children.get(jobName.charAt(i++)) : null;
+        }
+
+        return matchingRule != null ? matchingRule.order : defaultOrder;
+    }
+
+    @RegisterForReflection
+    public static class JobOrderRules {
+
+        public int defaultOrder = 200;
+
+        public List<JobOrderRule> rules;
+    }
+
+    @RegisterForReflection
+    public static class JobOrderRule {
+
+        public String prefix;
+
+        public String contains;
+
+        public int order;
+    }
+
+    private static class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<CompiledRule> rules = new ArrayList<>(1);
+    }
+
+    /**
+     * @param index the position of the rule in the table, the first matching rule wins
+     */
+    private record CompiledRule(int index, String contains, int order) {
+
+        private boolean matches(String jobName) {
+            return contains == null || jobName.contains(contains);
+        }
+    }
+
+    private static class DefaultsHolder {
+
+        private static final JobOrder DEFAULTS;
+
+        static {
+            try (InputStream rulesStream = JobOrder.class.getClassLoader().getResourceAsStream(DEFAULT_RULES)) {
+                if (rulesStream == null) {
+                    throw new IllegalStateException("Unable to find " + DEFAULT_RULES);
+                }
+                DEFAULTS = read(new ObjectMapper(), rulesStream);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read " + DEFAULT_RULES, e);
+            }
+        }
+    }
+}
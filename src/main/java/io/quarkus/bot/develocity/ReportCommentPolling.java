@@ -0,0 +1,55 @@
+package io.quarkus.bot.develocity;
+
+import java.time.Duration;
+import java.util.OptionalLong;
+
+import org.awaitility.pollinterval.PollInterval;
+
+import io.quarkiverse.githubaction.Inputs;
+
+/**
+ * Schedule used to wait for the report comment: we start polling quickly and back off exponentially.
+ * <p>
+ * Setting the initial interval to the max interval gives a fixed schedule.
+ */
+record ReportCommentPolling(Duration delay, Duration initialInterval, Duration maxInterval, Duration timeout) {
+
+    static final Duration DEFAULT_DELAY = Duration.ofSeconds(10);
+    static final Duration DEFAULT_INITIAL_INTERVAL = Duration.ofSeconds(10);
+    static final Duration DEFAULT_MAX_INTERVAL = Duration.ofMinutes(3);
+    static final Duration DEFAULT_TIMEOUT = Duration.ofMinutes(15);
+
+    static ReportCommentPolling fromInputs(Inputs inputs) {
+        Duration delay = getSeconds(inputs, "report-comment-poll-delay", DEFAULT_DELAY);
+        Duration initialInterval = getSeconds(inputs, "report-comment-poll-interval", DEFAULT_INITIAL_INTERVAL);
+        Duration maxInterval = getSeconds(inputs, "report-comment-poll-max-interval", DEFAULT_MAX_INTERVAL);
+        Duration timeout = getSeconds(inputs, "report-comment-timeout", DEFAULT_TIMEOUT);
+
+        if (maxInterval.compareTo(initialInterval) < 0) {
+            maxInterval = initialInterval;
+        }
+        if (timeout.compareTo(delay) <= 0) {
+            timeout = delay.plus(initialInterval);
+        }
+
+        return new ReportCommentPolling(delay, initialInterval, maxInterval, timeout);
+    }
+
+    PollInterval pollInterval() {
+        return (pollCount, previous) -> {
+            if (pollCount <= 1) {
+                return initialInterval;
+            }
+            Duration next = previous.multipliedBy(2);
+            return next.compareTo(maxInterval) > 0 ? maxInterval : next;
+        };
+    }
+
+    private static Duration getSeconds(Inputs inputs, String name, Duration defaultValue) {
+        OptionalLong seconds = inputs.getLong(name);
+        if (seconds.isEmpty() || seconds.getAsLong() < 0) {
+            return defaultValue;
+        }
+        return Duration.ofSeconds(seconds.getAsLong());
+    }
+}
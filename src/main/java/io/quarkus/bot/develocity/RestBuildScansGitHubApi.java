@@ -0,0 +1,170 @@
+package io.quarkus.bot.develocity;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.kohsuke.github.GHCheckRun;
+import org.kohsuke.github.GHCheckRunBuilder.Output;
+import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHIssueState;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.GHRepository;
+import org.kohsuke.github.GHWorkflowRun;
+import org.kohsuke.github.GHWorkflowRun.Conclusion;
+import org.kohsuke.github.GHWorkflowRun.Status;
+import org.kohsuke.github.GitHub;
+
+import io.quarkus.bot.concurrent.TaskScope;
+import io.quarkus.bot.concurrent.TaskScope.Subtask;
+
+class RestBuildScansGitHubApi implements BuildScansGitHubApi {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final GitHub gitHub;
+    private final String repositoryName;
+
+    private GHRepository repository;
+    private GHPullRequest pullRequest;
+    private long workflowRunAttempt;
+    private boolean workflowRunCompleted;
+
+    /**
+     * Only the comments created or updated since the previous lookup are considered.
+     */
+    private Date since;
+    private long highestSeenCommentId;
+    private GHIssueComment reportComment;
+
+    RestBuildScansGitHubApi(GitHub gitHub, String repositoryName) {
+        this.gitHub = gitHub;
+        this.repositoryName = repositoryName;
+    }
+
+    @Override
+    public Target load(int prNumber, long workflowRunId, TaskScope scope) throws IOException {
+        repository = gitHub.getRepository(repositoryName);
+
+        Subtask<GHPullRequest> pullRequestSubtask = scope.fork(() -> repository.getPullRequest(prNumber));
+        Subtask<GHWorkflowRun> workflowRunSubtask = scope.fork(() -> repository.getWorkflowRun(workflowRunId));
+        scope.join().throwIfFailed();
+
+        pullRequest = pullRequestSubtask.get();
+        GHWorkflowRun workflowRun = workflowRunSubtask.get();
+        since = workflowRun.getCreatedAt();
+        workflowRunAttempt = workflowRun.getRunAttempt();
+        workflowRunCompleted = workflowRun.getStatus() == Status.COMPLETED;
+
+        return new Target(pullRequest.getNumber(), pullRequest.getHtmlUrl().toString(), workflowRun.getId(),
+                workflowRun.getCreatedAt(), workflowRun.getHeadSha(), workflowRun.getConclusion() == Conclusion.CANCELLED);
+    }
+
+    @Override
+    public String createCheckRun(Target target, String name, String externalId, String title, String summary, String text)
+            throws IOException {
+        return repository.createCheckRun(name, target.headSha())
+                .withExternalID(externalId)
+                .add(new Output(title, summary).withText(text))
+                .withConclusion(GHCheckRun.Conclusion.NEUTRAL)
+                .withCompletedAt(new Date())
+                .create()
+                .getHtmlUrl()
+                .toString();
+    }
+
+    @Override
+    public Optional<String> findCheckRun(Target target, String name, String externalId) throws IOException {
+        for (GHCheckRun checkRun : repository.getCheckRuns(target.headSha(), Map.of("check_name", name))
+                .withPageSize(PAGE_SIZE)) {
+            if (externalId.equals(checkRun.getExternalId())) {
+                return Optional.of(checkRun.getHtmlUrl().toString());
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public Optional<ReportComment> findReportComment(Target target, List<String> markers) throws IOException {
+        Date latestUpdatedAt = since;
+        long highestCommentId = highestSeenCommentId;
+
+        // comments are returned in ascending order so the last match is the most recent one
+        for (GHIssueComment comment : pullRequest.queryComments().since(since).list().withPageSize(PAGE_SIZE)) {
+            Date updatedAt = comment.getUpdatedAt();
+
+            if (updatedAt.after(latestUpdatedAt)) {
+                latestUpdatedAt = updatedAt;
+            }
+            if (comment.getId() > highestCommentId) {
+                highestCommentId = comment.getId();
+            }
+
+            if (comment.getId() <= highestSeenCommentId && !updatedAt.after(since)) {
+                // we already checked this comment during a previous lookup
+                continue;
+            }
+
+            if (containsAny(comment.getBody(), markers)) {
+                reportComment = comment;
+            }
+        }
+
+        since = latestUpdatedAt;
+        highestSeenCommentId = highestCommentId;
+
+        return Optional.ofNullable(reportComment).map(RestReportComment::new);
+    }
+
+    /**
+     * Both calls are conditional requests so they are cheap as long as nothing changed.
+     */
+    @Override
+    public Optional<String> findAbortReason(Target target) throws IOException {
+        GHWorkflowRun workflowRun = repository.getWorkflowRun(target.workflowRunId());
+        if (workflowRun.getConclusion() == Conclusion.CANCELLED) {
+            return Optional.of("the workflow run has been cancelled");
+        }
+        if (workflowRun.getRunAttempt() > workflowRunAttempt
+                || (workflowRunCompleted && workflowRun.getStatus() != Status.COMPLETED)) {
+            return Optional.of("the workflow run has been re-run");
+        }
+
+        GHPullRequest currentPullRequest = repository.getPullRequest(target.prNumber());
+        if (currentPullRequest.getState() != GHIssueState.OPEN) {
+            return Optional.of("the pull request has been closed");
+        }
+        if (!target.headSha().equals(currentPullRequest.getHead().getSha())) {
+            return Optional.of("the pull request has a new head commit " + currentPullRequest.getHead().getSha());
+        }
+
+        return Optional.empty();
+    }
+
+    static boolean containsAny(String body, List<String> markers) {
+        if (body == null) {
+            return false;
+        }
+        for (String marker : markers) {
+            if (body.contains(marker)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record RestReportComment(GHIssueComment comment) implements ReportComment {
+
+        @Override
+        public String body() {
+            return comment.getBody();
+        }
+
+        @Override
+        public void update(String body) throws IOException {
+            comment.update(body);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.quarkus.bot.github;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A response kept to answer a {@code 304 Not Modified}. The headers are the response headers, request headers are never
+ * kept.
+ *
+ * @param key the URL and Accept header of the request
+ */
+public record CachedResponse(String key, String etag, String lastModified, int statusCode,
+        Map<String, List<String>> headers, byte[] body) {
+}
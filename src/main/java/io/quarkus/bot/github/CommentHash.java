@@ -0,0 +1,61 @@
+package io.quarkus.bot.github;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A compact hash of the content of a comment, carried by the comment in an HTML comment so that we can tell that a comment
+ * is already up to date without comparing bodies and skip the write.
+ * <p>
+ * Skipping writes avoids redundant API calls and notifications when the same content is posted again.
+ */
+public final class CommentHash {
+
+    /**
+     * 64 bits are more than enough to detect a change of content.
+     */
+    private static final int HASH_BYTES = 8;
+
+    private final String markerPrefix;
+    private final Pattern markerPattern;
+
+    /**
+     * @param name the name of the marker, e.g. {@code Build-Reporter/build-scans-hash}
+     */
+    public CommentHash(String name) {
+        this.markerPrefix = "<!-- " + name + ":";
+        this.markerPattern = Pattern.compile(Pattern.quote(markerPrefix) + "([0-9a-f]+) -->");
+    }
+
+    public static String hash(String content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest, 0, HASH_BYTES);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+    }
+
+    public String marker(String hash) {
+        return markerPrefix + hash + " -->";
+    }
+
+    public boolean isUpToDate(String body, String hash) {
+        return body != null && body.contains(marker(hash));
+    }
+
+    /**
+     * Adds the marker at the end of the body, replacing the previous one if any.
+     */
+    public String mark(String body, String hash) {
+        Matcher matcher = markerPattern.matcher(body);
+        if (matcher.find()) {
+            return body.substring(0, matcher.start()) + marker(hash) + body.substring(matcher.end());
+        }
+        return body + "\n" + marker(hash);
+    }
+}
@@ -0,0 +1,179 @@
+package io.quarkus.bot.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * Remembers the ETag and the Last-Modified date of every successful GET and revalidates with {@code If-None-Match} and
+ * {@code If-Modified-Since} on the next identical request.
+ * <p>
+ * A {@code 304 Not Modified} does not count against the rate limit: we answer it with the body we already have.
+ * <p>
+ * Responses are kept in memory by default, they can be kept on disk to be shared across runs. In any case, cached responses
+ * are always revalidated: they are never served without GitHub confirming they are still valid for the current token.
+ */
+public class ConditionalRequestsConnector implements GitHubConnector {
+
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+    private static final String IF_NONE_MATCH = "If-None-Match";
+    private static final String IF_MODIFIED_SINCE = "If-Modified-Since";
+    private static final int NOT_MODIFIED = 304;
+
+    private final GitHubConnector delegate;
+    private final ResponseCache responses;
+
+    public ConditionalRequestsConnector(GitHubConnector delegate) {
+        this(delegate, new MemoryResponseCache());
+    }
+
+    public ConditionalRequestsConnector(GitHubConnector delegate, ResponseCache responses) {
+        this.delegate = delegate;
+        this.responses = responses;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        if (!"GET".equals(request.method())) {
+            return delegate.send(request);
+        }
+
+        String key = getKey(request);
+        CachedResponse cachedResponse = responses.get(key);
+
+        GitHubConnectorResponse response = delegate.send(
+                cachedResponse == null ? request : new ConditionalRequest(request, cachedResponse));
+
+        if (cachedResponse != null && response.statusCode() == NOT_MODIFIED) {
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            headers.putAll(cachedResponse.headers());
+            // we want the fresh rate limit information
+            copyHeaders(response.allHeaders(), headers);
+            response.close();
+
+            return new CachedConnectorResponse(request, cachedResponse.statusCode(), headers, cachedResponse.body());
+        }
+
+        String etag = response.header(ETAG);
+        String lastModified = response.header(LAST_MODIFIED);
+        if (response.statusCode() != 200 || (etag == null && lastModified == null)) {
+            return response;
+        }
+
+        byte[] body;
+        try (InputStream bodyStream = response.bodyStream()) {
+            body = bodyStream.readAllBytes();
+        } finally {
+            response.close();
+        }
+
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        copyHeaders(response.allHeaders(), headers);
+        // the body we keep is already decoded
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+        // responses might end up on disk, we don't want to keep anything looking like a credential
+        headers.remove("Set-Cookie");
+
+        responses.put(key, new CachedResponse(key, etag, lastModified, response.statusCode(), headers, body));
+
+        return new CachedConnectorResponse(request, response.statusCode(), headers, body);
+    }
+
+    private static String getKey(GitHubConnectorRequest request) {
+        return request.url() + " " + request.header("Accept");
+    }
+
+    private static void copyHeaders(Map<String, List<String>> from, Map<String, List<String>> to) {
+        for (Map.Entry<String, List<String>> header : from.entrySet()) {
+            if (header.getKey() != null) {
+                to.put(header.getKey(), header.getValue());
+            }
+        }
+    }
+
+    private static class ConditionalRequest implements GitHubConnectorRequest {
+
+        private final GitHubConnectorRequest delegate;
+        private final Map<String, List<String>> headers;
+
+        private ConditionalRequest(GitHubConnectorRequest delegate, CachedResponse cachedResponse) {
+            this.delegate = delegate;
+            this.headers = new HashMap<>(delegate.allHeaders());
+            if (cachedResponse.etag() != null) {
+                this.headers.put(IF_NONE_MATCH, List.of(cachedResponse.etag()));
+            }
+            if (cachedResponse.lastModified() != null) {
+                this.headers.put(IF_MODIFIED_SINCE, List.of(cachedResponse.lastModified()));
+            }
+        }
+
+        @Override
+        public String method() {
+            return delegate.method();
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String header(String name) {
+            if (IF_NONE_MATCH.equalsIgnoreCase(name) || IF_MODIFIED_SINCE.equalsIgnoreCase(name)) {
+                List<String> values = headers.get(IF_NONE_MATCH.equalsIgnoreCase(name) ? IF_NONE_MATCH : IF_MODIFIED_SINCE);
+                return values != null ? values.get(0) : null;
+            }
+            return delegate.header(name);
+        }
+
+        @Override
+        public String contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public InputStream body() {
+            return delegate.body();
+        }
+
+        @Override
+        public URL url() {
+            return delegate.url();
+        }
+
+        @Override
+        public boolean hasBody() {
+            return delegate.hasBody();
+        }
+    }
+
+    static class CachedConnectorResponse extends GitHubConnectorResponse {
+
+        private final byte[] body;
+
+        CachedConnectorResponse(GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        @Override
+        public InputStream bodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
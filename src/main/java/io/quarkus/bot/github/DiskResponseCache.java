@@ -0,0 +1,246 @@
+package io.quarkus.bot.github;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Keeps the responses on disk so that they can be shared across runs, typically by persisting the directory with
+ * {@code actions/cache}.
+ * <p>
+ * Each response is stored in its own file, named after the hash of its key. The total size is bounded: the least recently
+ * used responses are evicted first, the last access being tracked with the modification time of the files so that it
+ * survives across runs.
+ * <p>
+ * The cache is only an optimization: any I/O error is ignored and a corrupted entry is simply dropped.
+ */
+public class DiskResponseCache implements ResponseCache {
+
+    private static final int FORMAT_VERSION = 1;
+    private static final String EXTENSION = ".response";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+
+    private final Path directory;
+    private final long maxSize;
+
+    private final Map<String, Entry> entries = new HashMap<>();
+    private long size;
+
+    public DiskResponseCache(Path directory, long maxSize) throws IOException {
+        this.directory = directory;
+        this.maxSize = maxSize;
+
+        Files.createDirectories(directory);
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (fileName.endsWith(TEMPORARY_EXTENSION)) {
+                    // left behind by an interrupted run
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (!fileName.endsWith(EXTENSION) || !Files.isRegularFile(file)) {
+                    continue;
+                }
+
+                long fileSize = Files.size(file);
+                entries.put(fileName, new Entry(fileSize, Files.getLastModifiedTime(file).toMillis()));
+                size += fileSize;
+            }
+        }
+
+        evict();
+    }
+
+    @Override
+    public synchronized CachedResponse get(String key) {
+        String fileName = getFileName(key);
+        Entry entry = entries.get(fileName);
+        if (entry == null) {
+            return null;
+        }
+
+        Path file = directory.resolve(fileName);
+        try {
+            CachedResponse response = read(file);
+            if (!key.equals(response.key())) {
+                // a hash collision, let's consider it's not there
+                return null;
+            }
+
+            entry.lastAccess = System.currentTimeMillis();
+            Files.setLastModifiedTime(file, FileTime.fromMillis(entry.lastAccess));
+
+            return response;
+        } catch (IOException | RuntimeException e) {
+            remove(fileName);
+            return null;
+        }
+    }
+
+    @Override
+    public synchronized void put(String key, CachedResponse response) {
+        if (response.body().length > maxSize) {
+            return;
+        }
+
+        String fileName = getFileName(key);
+        Path file = directory.resolve(fileName);
+        Path temporaryFile = directory.resolve(fileName + TEMPORARY_EXTENSION);
+
+        try {
+            write(temporaryFile, response);
+            try {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            Entry previousEntry = entries.put(fileName, new Entry(Files.size(file), System.currentTimeMillis()));
+            if (previousEntry != null) {
+                size -= previousEntry.size;
+            }
+            size += entries.get(fileName).size;
+
+            evict();
+        } catch (IOException e) {
+            try {
+                Files.deleteIfExists(temporaryFile);
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    private void evict() {
+        if (size <= maxSize) {
+            return;
+        }
+
+        List<Map.Entry<String, Entry>> leastRecentlyUsed = new ArrayList<>(entries.entrySet());
+        leastRecentlyUsed.sort(Map.Entry.comparingByValue((e1, e2) -> Long.compare(e1.lastAccess, e2.lastAccess)));
+
+        for (Map.Entry<String, Entry> entry : leastRecentlyUsed) {
+            if (size <= maxSize) {
+                break;
+            }
+            remove(entry.getKey());
+        }
+    }
+
+    private void remove(String fileName) {
+        Entry entry = entries.remove(fileName);
+        if (entry != null) {
+            size -= entry.size;
+        }
+        try {
+            Files.deleteIfExists(directory.resolve(fileName));
+        } catch (IOException e) {
+            // we will try again next time
+        }
+    }
+
+    private static void write(Path file, CachedResponse response) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)))) {
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(response.key());
+            writeNullableString(out, response.etag());
+            writeNullableString(out, response.lastModified());
+            out.writeInt(response.statusCode());
+
+            out.writeInt(response.headers().size());
+            for (Map.Entry<String, List<String>> header : response.headers().entrySet()) {
+                out.writeUTF(header.getKey());
+                out.writeInt(header.getValue().size());
+                for (String value : header.getValue()) {
+                    writeNullableString(out, value);
+                }
+            }
+
+            out.writeInt(response.body().length);
+            out.write(response.body());
+        }
+    }
+
+    private static CachedResponse read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != FORMAT_VERSION) {
+                throw new IOException("Unsupported format for " + file);
+            }
+
+            String key = in.readUTF();
+            String etag = readNullableString(in);
+            String lastModified = readNullableString(in);
+            int statusCode = in.readInt();
+
+            int headerCount = in.readInt();
+            Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+            for (int i = 0; i < headerCount; i++) {
+                String name = in.readUTF();
+                int valueCount = in.readInt();
+                List<String> values = new ArrayList<>(valueCount);
+                for (int j = 0; j < valueCount; j++) {
+                    values.add(readNullableString(in));
+                }
+                headers.put(name, values);
+            }
+
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+
+            return new CachedResponse(key, etag, lastModified, statusCode, headers, body);
+        }
+    }
+
+    private static void writeNullableString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullableString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static String getFileName(String key) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8))) + EXTENSION;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static class Entry {
+
+        private final long size;
+        private long lastAccess;
+
+        private Entry(long size, long lastAccess) {
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.quarkus.bot.github;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubAbuseLimitHandler;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.GitHubRateLimitHandler;
+import org.kohsuke.github.HttpException;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Commands;
+import io.quarkiverse.githubaction.Context;
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.metrics.ActionMetrics;
+
+/**
+ * Builds the GitHub clients used by the actions.
+ * <p>
+ * We don't use the clients provided by Quarkus GitHub Action as we want to control how requests are sent. The REST and
+ * GraphQL clients share the same connector, which retries the calls failing because of rate limits or transient errors
+ * and records them in the {@link ActionMetrics}. The exchanges can also be recorded to a file to be replayed in tests.
+ * <p>
+ * The clients are thread safe and created once, so that the items of a batch share them.
+ */
+@Singleton
+public class GitHubClientFactory {
+
+    private static final long DEFAULT_HTTP_CACHE_MAX_SIZE_MB = 50;
+    private static final long DEFAULT_RETRY_BUDGET_SECONDS = 120;
+
+    /**
+     * Rate limits are handled by the {@link RetryingConnector} within its budget, we don't want the client to wait for the
+     * reset of the quota, which could take up to an hour.
+     */
+    private static final GitHubRateLimitHandler FAIL_ON_RATE_LIMIT = new GitHubRateLimitHandler() {
+        @Override
+        public void onError(GitHubConnectorResponse response) throws IOException {
+            throw new HttpException(response);
+        }
+    };
+    private static final GitHubAbuseLimitHandler FAIL_ON_ABUSE_LIMIT = new GitHubAbuseLimitHandler() {
+        @Override
+        public void onError(GitHubConnectorResponse response) throws IOException {
+            throw new HttpException(response);
+        }
+    };
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    ActionMetrics actionMetrics;
+
+    private GitHubConnector connector;
+    private GitHub gitHub;
+    private GitHubGraphQLClient gitHubGraphQLClient;
+
+    public synchronized GitHub create(Context context, Commands commands, Inputs inputs) throws IOException {
+        if (gitHub == null) {
+            gitHub = new GitHubBuilder()
+                    .withEndpoint(context.getGitHubApiUrl())
+                    .withAppInstallationToken(getToken(inputs))
+                    .withConnector(getConnector(commands, inputs))
+                    .withRateLimitHandler(FAIL_ON_RATE_LIMIT)
+                    .withAbuseLimitHandler(FAIL_ON_ABUSE_LIMIT)
+                    .build();
+        }
+        return gitHub;
+    }
+
+    public synchronized GitHubGraphQLClient createGraphQL(Context context, Commands commands, Inputs inputs)
+            throws IOException {
+        if (gitHubGraphQLClient == null) {
+            String endpoint = context.getGithubGraphQLUrl();
+            if (endpoint == null || endpoint.isBlank()) {
+                endpoint = context.getGitHubApiUrl() + "/graphql";
+            }
+
+            gitHubGraphQLClient = new GitHubGraphQLClient(getConnector(commands, inputs), objectMapper, new URL(endpoint),
+                    getToken(inputs));
+        }
+        return gitHubGraphQLClient;
+    }
+
+    private synchronized GitHubConnector getConnector(Commands commands, Inputs inputs) {
+        if (connector == null) {
+            // each attempt is recorded, and the retries are transparent for the conditional requests
+            Duration retryBudget = Duration.ofSeconds(inputs.getLong("github-retry-budget").orElse(DEFAULT_RETRY_BUDGET_SECONDS));
+            GitHubConnector httpConnector = inputs.get("github-record-file")
+                    .<GitHubConnector> map(f -> new RecordingConnector(GitHubConnector.DEFAULT, objectMapper, Path.of(f)))
+                    .orElse(GitHubConnector.DEFAULT);
+            connector = new ConditionalRequestsConnector(
+                    new RetryingConnector(new InstrumentedConnector(httpConnector, actionMetrics), retryBudget),
+                    getResponseCache(commands, inputs));
+        }
+        return connector;
+    }
+
+    private static ResponseCache getResponseCache(Commands commands, Inputs inputs) {
+        Optional<String> httpCacheDirectory = inputs.get("http-cache-directory");
+        if (httpCacheDirectory.isEmpty()) {
+            return new MemoryResponseCache();
+        }
+
+        long maxSize = inputs.getLong("http-cache-max-size").orElse(DEFAULT_HTTP_CACHE_MAX_SIZE_MB) * 1024 * 1024;
+        try {
+            return new DiskResponseCache(Path.of(httpCacheDirectory.get()), maxSize);
+        } catch (IOException e) {
+            // the cache is only an optimization
+            commands.warning("Unable to use " + httpCacheDirectory.get() + " as HTTP cache, falling back to memory: "
+                    + e.getMessage());
+            return new MemoryResponseCache();
+        }
+    }
+
+    private static String getToken(Inputs inputs) {
+        return inputs.getGitHubToken()
+                .orElseThrow(() -> new IllegalStateException("No GitHub token provided, the github-token input is required"));
+    }
+}
@@ -0,0 +1,138 @@
+package io.quarkus.bot.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
+import java.util.Map;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.github.RetryingConnector.IdempotentRequest;
+
+/**
+ * A minimal GraphQL client sending its requests through the same connector as the REST client.
+ */
+public class GitHubGraphQLClient {
+
+    private static final String APPLICATION_JSON = "application/json";
+
+    private final GitHubConnector connector;
+    private final ObjectMapper objectMapper;
+    private final URL endpoint;
+    private final String token;
+
+    GitHubGraphQLClient(GitHubConnector connector, ObjectMapper objectMapper, URL endpoint, String token) {
+        this.connector = connector;
+        this.objectMapper = objectMapper;
+        this.endpoint = endpoint;
+        this.token = token;
+    }
+
+    /**
+     * Queries are retried in case of transient errors, mutations are not.
+     *
+     * @return the {@code data} node of the response
+     * @throws IOException if the request failed or if the response contains errors
+     */
+    public JsonNode execute(String query, Map<String, Object> variables) throws IOException {
+        return execute(query, variables, !query.strip().startsWith("mutation"));
+    }
+
+    /**
+     * @param idempotent whether the request can be retried safely, e.g. a mutation setting the body of a comment
+     */
+    public JsonNode execute(String query, Map<String, Object> variables, boolean idempotent) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(Map.of("query", query, "variables", variables));
+
+        try (GitHubConnectorResponse response = connector.send(new GraphQLRequest(endpoint, token, body, idempotent))) {
+            JsonNode result;
+            try (InputStream bodyStream = response.bodyStream()) {
+                result = objectMapper.readTree(bodyStream);
+            }
+
+            if (response.statusCode() != 200) {
+                throw new IOException("GraphQL request failed with status " + response.statusCode() + ": " + result);
+            }
+
+            JsonNode errors = result.path("errors");
+            if (errors.isArray() && !errors.isEmpty()) {
+                StringBuilder message = new StringBuilder("GraphQL request failed:");
+                for (JsonNode error : errors) {
+                    message.append(' ').append(error.path("message").asText());
+                }
+                throw new IOException(message.toString());
+            }
+
+            return result.path("data");
+        }
+    }
+
+    private static class GraphQLRequest implements GitHubConnectorRequest, IdempotentRequest {
+
+        private final URL url;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        private final boolean idempotent;
+
+        private GraphQLRequest(URL url, String token, byte[] body, boolean idempotent) {
+            this.url = url;
+            this.headers = Map.of("Authorization", List.of("bearer " + token),
+                    "Accept", List.of(APPLICATION_JSON),
+                    "Content-Type", List.of(APPLICATION_JSON));
+            this.body = body;
+            this.idempotent = idempotent;
+        }
+
+        @Override
+        public boolean isIdempotent() {
+            return idempotent;
+        }
+
+        @Override
+        public String method() {
+            return "POST";
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return headers;
+        }
+
+        @Override
+        public String header(String name) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String contentType() {
+            return APPLICATION_JSON;
+        }
+
+        @Override
+        public InputStream body() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public URL url() {
+            return url;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return true;
+        }
+    }
+}
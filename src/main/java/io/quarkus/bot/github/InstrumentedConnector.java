@@ -0,0 +1,167 @@
+package io.quarkus.bot.github;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import io.quarkus.bot.metrics.ActionMetrics;
+
+/**
+ * Records the calls actually sent to GitHub: it sits below {@link ConditionalRequestsConnector} so that the
+ * {@code 304 Not Modified} responses are visible.
+ * <p>
+ * The latency is measured until the headers are received, the bytes are counted as the body is consumed.
+ */
+public class InstrumentedConnector implements GitHubConnector {
+
+    private final GitHubConnector delegate;
+    private final ActionMetrics metrics;
+
+    public InstrumentedConnector(GitHubConnector delegate, ActionMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        String endpoint = getEndpoint(request);
+        long start = System.nanoTime();
+
+        GitHubConnectorResponse response = delegate.send(request);
+
+        metrics.recordCall(endpoint, response.statusCode(), Duration.ofNanos(System.nanoTime() - start));
+        recordRateLimit(response);
+
+        return new InstrumentedConnectorResponse(response, endpoint, metrics);
+    }
+
+    /**
+     * Groups the calls per endpoint: the owner and name of the repository and the numeric ids are replaced by placeholders.
+     */
+    static String getEndpoint(GitHubConnectorRequest request) {
+        String path = request.url().getPath();
+        String[] segments = path.split("/");
+
+        StringBuilder endpoint = new StringBuilder(path.length() + 16).append(request.method()).append(' ');
+        boolean repository = segments.length > 1 && "repos".equals(segments[1]);
+
+        for (int i = 1; i < segments.length; i++) {
+            endpoint.append('/');
+            if (repository && i == 2) {
+                endpoint.append("{owner}");
+            } else if (repository && i == 3) {
+                endpoint.append("{repo}");
+            } else if (isNumeric(segments[i])) {
+                endpoint.append("{id}");
+            } else {
+                endpoint.append(segments[i]);
+            }
+        }
+
+        return endpoint.toString();
+    }
+
+    private void recordRateLimit(GitHubConnectorResponse response) {
+        String remaining = response.header("X-RateLimit-Remaining");
+        String limit = response.header("X-RateLimit-Limit");
+        if (remaining == null || limit == null) {
+            return;
+        }
+
+        String resource = response.header("X-RateLimit-Resource");
+        String reset = response.header("X-RateLimit-Reset");
+
+        try {
+            metrics.recordRateLimit(resource != null ? resource : "core", Integer.parseInt(limit), Integer.parseInt(remaining),
+                    reset != null ? Long.parseLong(reset) : 0);
+        } catch (NumberFormatException e) {
+            // ignore malformed headers, they are only informative
+        }
+    }
+
+    private static boolean isNumeric(String segment) {
+        if (segment.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < segment.length(); i++) {
+            if (!Character.isDigit(segment.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class InstrumentedConnectorResponse extends GitHubConnectorResponse {
+
+        private final GitHubConnectorResponse delegate;
+        private final String endpoint;
+        private final ActionMetrics metrics;
+
+        private InstrumentedConnectorResponse(GitHubConnectorResponse delegate, String endpoint, ActionMetrics metrics) {
+            super(delegate.request(), delegate.statusCode(), delegate.allHeaders());
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+            this.metrics = metrics;
+        }
+
+        @Override
+        public InputStream bodyStream() throws IOException {
+            InputStream bodyStream = delegate.bodyStream();
+            return bodyStream != null ? new CountingInputStream(bodyStream) : null;
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        private class CountingInputStream extends FilterInputStream {
+
+            private long count;
+            private boolean closed;
+
+            private CountingInputStream(InputStream in) {
+                super(in);
+            }
+
+            @Override
+            public int read() throws IOException {
+                int b = super.read();
+                if (b >= 0) {
+                    count++;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                int read = super.read(b, off, len);
+                if (read > 0) {
+                    count += read;
+                }
+                return read;
+            }
+
+            @Override
+            public long skip(long n) throws IOException {
+                long skipped = super.skip(n);
+                count += skipped;
+                return skipped;
+            }
+
+            @Override
+            public void close() throws IOException {
+                if (!closed) {
+                    closed = true;
+                    metrics.recordBytes(endpoint, count);
+                }
+                super.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package io.quarkus.bot.github;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the responses for the lifetime of the action.
+ */
+public class MemoryResponseCache implements ResponseCache {
+
+    private final Map<String, CachedResponse> responses = new ConcurrentHashMap<>();
+
+    @Override
+    public CachedResponse get(String key) {
+        return responses.get(key);
+    }
+
+    @Override
+    public void put(String key, CachedResponse response) {
+        responses.put(key, response);
+    }
+}
@@ -0,0 +1,186 @@
+package io.quarkus.bot.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.github.ConditionalRequestsConnector.CachedConnectorResponse;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Records the exchanges with GitHub to a file, one JSON object per line, so that they can be replayed offline, typically to
+ * measure the latency and the number of calls of an action in tests.
+ * <p>
+ * It sits right above the HTTP client so that the exchanges are recorded as sent, including the conditional requests and
+ * the retries. Only the method, the path and the body of the requests are recorded, never their headers as they contain the
+ * token, and only the response headers needed to replay them are kept.
+ */
+public class RecordingConnector implements GitHubConnector {
+
+    private static final Set<String> RECORDED_HEADERS = Set.of("content-type", "etag", "last-modified", "link", "location",
+            "retry-after", "x-ratelimit-limit", "x-ratelimit-remaining", "x-ratelimit-reset", "x-ratelimit-resource",
+            "x-ratelimit-used");
+
+    private final GitHubConnector delegate;
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public RecordingConnector(GitHubConnector delegate, ObjectMapper objectMapper, Path file) {
+        this.delegate = delegate;
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        byte[] requestBody = null;
+        if (request.hasBody()) {
+            try (InputStream bodyStream = request.body()) {
+                requestBody = bodyStream.readAllBytes();
+            }
+            // the body stream might not be readable twice
+            request = new BufferedRequest(request, requestBody);
+        }
+
+        GitHubConnectorResponse response = delegate.send(request);
+
+        byte[] responseBody;
+        try (InputStream bodyStream = response.bodyStream()) {
+            responseBody = bodyStream != null ? bodyStream.readAllBytes() : new byte[0];
+        } catch (IOException e) {
+            if (response.statusCode() < 400) {
+                throw e;
+            }
+            // some errors come without a body
+            responseBody = new byte[0];
+        } finally {
+            response.close();
+        }
+
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        Map<String, List<String>> recordedHeaders = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Map.Entry<String, List<String>> header : response.allHeaders().entrySet()) {
+            if (header.getKey() == null) {
+                continue;
+            }
+            headers.put(header.getKey(), header.getValue());
+            if (RECORDED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                recordedHeaders.put(header.getKey(), header.getValue());
+            }
+        }
+        // the body we pass on is already decoded
+        headers.remove("Content-Encoding");
+        headers.remove("Content-Length");
+
+        URL url = request.url();
+        RecordedExchange exchange = new RecordedExchange();
+        exchange.method = request.method();
+        exchange.path = url.getFile();
+        exchange.apiUrl = url.getProtocol() + "://" + url.getAuthority();
+        exchange.requestBody = requestBody != null ? new String(requestBody, StandardCharsets.UTF_8) : null;
+        exchange.status = response.statusCode();
+        exchange.headers = recordedHeaders;
+        exchange.body = new String(responseBody, StandardCharsets.UTF_8);
+        write(exchange);
+
+        return new CachedConnectorResponse(request, response.statusCode(), headers, responseBody);
+    }
+
+    private synchronized void write(RecordedExchange exchange) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND)) {
+            writer.write(objectMapper.writeValueAsString(exchange));
+            writer.write('\n');
+        }
+    }
+
+    /**
+     * An exchange with GitHub as recorded, the URLs of the API in the bodies and the headers are kept as is.
+     */
+    @RegisterForReflection
+    public static class RecordedExchange {
+
+        public String method;
+
+        /**
+         * The path of the request, including the query string.
+         */
+        public String path;
+
+        /**
+         * The URL of the API the request was sent to, e.g. {@code https://api.github.com}.
+         */
+        public String apiUrl;
+
+        public String requestBody;
+
+        public int status;
+
+        public Map<String, List<String>> headers;
+
+        public String body;
+    }
+
+    private static class BufferedRequest implements GitHubConnectorRequest {
+
+        private final GitHubConnectorRequest delegate;
+        private final byte[] body;
+
+        private BufferedRequest(GitHubConnectorRequest delegate, byte[] body) {
+            this.delegate = delegate;
+            this.body = body;
+        }
+
+        @Override
+        public String method() {
+            return delegate.method();
+        }
+
+        @Override
+        public Map<String, List<String>> allHeaders() {
+            return delegate.allHeaders();
+        }
+
+        @Override
+        public String header(String name) {
+            return delegate.header(name);
+        }
+
+        @Override
+        public String contentType() {
+            return delegate.contentType();
+        }
+
+        @Override
+        public InputStream body() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public URL url() {
+            return delegate.url();
+        }
+
+        @Override
+        public boolean hasBody() {
+            return true;
+        }
+    }
+}
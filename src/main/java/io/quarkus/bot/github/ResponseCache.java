@@ -0,0 +1,14 @@
+package io.quarkus.bot.github;
+
+/**
+ * Where {@link ConditionalRequestsConnector} keeps the responses it can revalidate. Implementations must be thread safe.
+ */
+public interface ResponseCache {
+
+    /**
+     * @return the cached response or null if there is none
+     */
+    CachedResponse get(String key);
+
+    void put(String key, CachedResponse response);
+}
@@ -0,0 +1,183 @@
+package io.quarkus.bot.github;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * Retries the requests failing because of rate limits or transient errors.
+ * <p>
+ * A rate limited request has not been processed so it is retried whatever its method, after the delay given by the
+ * {@code Retry-After} header or when the quota is reset according to the {@code X-RateLimit-Reset} header. Server errors and
+ * connection errors are only retried for idempotent requests, with a jittered exponential backoff, as we don't know if the
+ * request has been processed.
+ * <p>
+ * The time spent waiting is taken from a budget shared by all the requests: once it is exhausted, the failure is returned
+ * to the caller as is.
+ */
+public class RetryingConnector implements GitHubConnector {
+
+    static final int DEFAULT_MAX_ATTEMPTS = 5;
+    static final Duration DEFAULT_BASE_DELAY = Duration.ofSeconds(1);
+    static final Duration DEFAULT_MAX_DELAY = Duration.ofSeconds(30);
+
+    /**
+     * Updating a resource with the same content twice has the same effect as updating it once, so PATCH requests are
+     * considered idempotent.
+     */
+    private static final Set<String> IDEMPOTENT_METHODS = Set.of("GET", "HEAD", "OPTIONS", "PUT", "PATCH", "DELETE");
+    private static final Set<Integer> TRANSIENT_STATUS_CODES = Set.of(500, 502, 503, 504);
+
+    private final GitHubConnector delegate;
+    private final int maxAttempts;
+    private final Duration baseDelay;
+    private final Duration maxDelay;
+    private final AtomicLong remainingBudgetMillis;
+    private final Sleeper sleeper;
+
+    public RetryingConnector(GitHubConnector delegate, Duration budget) {
+        this(delegate, budget, DEFAULT_MAX_ATTEMPTS, DEFAULT_BASE_DELAY, DEFAULT_MAX_DELAY, Thread::sleep);
+    }
+
+    RetryingConnector(GitHubConnector delegate, Duration budget, int maxAttempts, Duration baseDelay, Duration maxDelay,
+            Sleeper sleeper) {
+        this.delegate = delegate;
+        this.maxAttempts = maxAttempts;
+        this.baseDelay = baseDelay;
+        this.maxDelay = maxDelay;
+        this.remainingBudgetMillis = new AtomicLong(budget.toMillis());
+        this.sleeper = sleeper;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        for (int attempt = 1;; attempt++) {
+            GitHubConnectorResponse response;
+            try {
+                response = delegate.send(request);
+            } catch (InterruptedIOException e) {
+                throw e;
+            } catch (IOException e) {
+                if (!isIdempotent(request) || !reserve(attempt, backoff(attempt))) {
+                    throw e;
+                }
+                continue;
+            }
+
+            long delayMillis;
+            if (isRateLimited(response)) {
+                delayMillis = getRateLimitDelay(response, attempt);
+            } else if (TRANSIENT_STATUS_CODES.contains(response.statusCode()) && isIdempotent(request)) {
+                delayMillis = backoff(attempt);
+            } else {
+                return response;
+            }
+
+            if (!reserve(attempt, delayMillis)) {
+                return response;
+            }
+            response.close();
+        }
+    }
+
+    /**
+     * Takes the delay from the budget and waits.
+     *
+     * @return false if no more attempts should be made
+     */
+    private boolean reserve(int attempt, long delayMillis) throws InterruptedIOException {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+
+        long remaining;
+        do {
+            remaining = remainingBudgetMillis.get();
+            if (delayMillis > remaining) {
+                return false;
+            }
+        } while (!remainingBudgetMillis.compareAndSet(remaining, remaining - delayMillis));
+
+        try {
+            sleeper.sleep(delayMillis);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to retry a GitHub API call");
+        }
+    }
+
+    long getRemainingBudgetMillis() {
+        return remainingBudgetMillis.get();
+    }
+
+    static boolean isIdempotent(GitHubConnectorRequest request) {
+        if (request instanceof IdempotentRequest idempotentRequest) {
+            return idempotentRequest.isIdempotent();
+        }
+        return IDEMPOTENT_METHODS.contains(request.method());
+    }
+
+    /**
+     * Secondary rate limits come with a {@code Retry-After} header, primary rate limits with no remaining quota.
+     */
+    static boolean isRateLimited(GitHubConnectorResponse response) {
+        if (response.statusCode() == 429) {
+            return true;
+        }
+        return response.statusCode() == 403
+                && (response.header("Retry-After") != null || "0".equals(response.header("X-RateLimit-Remaining")));
+    }
+
+    private long getRateLimitDelay(GitHubConnectorResponse response, int attempt) {
+        String retryAfter = response.header("Retry-After");
+        if (retryAfter != null) {
+            try {
+                return Duration.ofSeconds(Long.parseLong(retryAfter.trim())).toMillis();
+            } catch (NumberFormatException e) {
+                // it might be an HTTP date, we fall back to the other strategies
+            }
+        }
+
+        String reset = response.header("X-RateLimit-Reset");
+        if ("0".equals(response.header("X-RateLimit-Remaining")) && reset != null) {
+            try {
+                // a second of margin as the reset is rounded to the second
+                return Math.max(0, Long.parseLong(reset.trim()) * 1000 - System.currentTimeMillis()) + 1000;
+            } catch (NumberFormatException e) {
+                // let's back off
+            }
+        }
+
+        return backoff(attempt);
+    }
+
+    /**
+     * Exponential backoff with equal jitter: between half and all of the exponential delay.
+     */
+    private long backoff(int attempt) {
+        long delayMillis = Math.min(maxDelay.toMillis(), baseDelay.toMillis() << Math.min(attempt - 1, 20));
+        return delayMillis / 2 + ThreadLocalRandom.current().nextLong(delayMillis / 2 + 1);
+    }
+
+    /**
+     * Allows requests to tell if they are idempotent when it can't be deduced from their method, e.g. GraphQL queries.
+     */
+    interface IdempotentRequest {
+
+        boolean isIdempotent();
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+
+        void sleep(long millis) throws InterruptedException;
+    }
+}
@@ -0,0 +1,232 @@
+package io.quarkus.bot.maintainonecomment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import io.quarkus.bot.github.GitHubGraphQLClient;
+import io.quarkus.bot.maintainonecomment.MaintainOneCommentAction.MaintainedCommentState;
+
+/**
+ * Contrary to the REST API, the GraphQL API allows to fetch a comment directly.
+ * <p>
+ * Comments are listed in ascending order as with the REST API, so that both backends maintain the oldest comment when there
+ * are duplicates, the one kept by {@link MaintainedCommentWriter}.
+ */
+class GraphQLMaintainedCommentsApi implements MaintainedCommentsApi {
+
+    private static final int PAGE_SIZE = 100;
+
+    private static final String COMMENT_QUERY = """
+            query($id: ID!) {
+              node(id: $id) {
+                ... on IssueComment {
+                  id
+                  databaseId
+                  body
+                }
+              }
+            }
+            """;
+
+    static final String COMMENTS_QUERY = """
+            query($owner: String!, $name: String!, $prNumber: Int!, $pageSize: Int!, $after: String) {
+              repository(owner: $owner, name: $name) {
+                pullRequest(number: $prNumber) {
+                  id
+                  comments(first: $pageSize, after: $after) {
+                    nodes {
+                      id
+                      databaseId
+                      body
+                    }
+                    pageInfo {
+                      hasNextPage
+                      endCursor
+                    }
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String PULL_REQUEST_ID_QUERY = """
+            query($owner: String!, $name: String!, $prNumber: Int!) {
+              repository(owner: $owner, name: $name) {
+                pullRequest(number: $prNumber) {
+                  id
+                }
+              }
+            }
+            """;
+
+    private static final String ADD_COMMENT_MUTATION = """
+            mutation($subjectId: ID!, $body: String!) {
+              addComment(input: {subjectId: $subjectId, body: $body}) {
+                commentEdge {
+                  node {
+                    id
+                    databaseId
+                    body
+                  }
+                }
+              }
+            }
+            """;
+
+    private static final String UPDATE_COMMENT_MUTATION = """
+            mutation($id: ID!, $body: String!) {
+              updateIssueComment(input: {id: $id, body: $body}) {
+                issueComment {
+                  id
+                }
+              }
+            }
+            """;
+
+    private static final String DELETE_COMMENT_MUTATION = """
+            mutation($id: ID!) {
+              deleteIssueComment(input: {id: $id}) {
+                clientMutationId
+              }
+            }
+            """;
+
+    private final GitHubGraphQLClient client;
+    private final String owner;
+    private final String name;
+    private final int prNumber;
+
+    private String pullRequestId;
+
+    GraphQLMaintainedCommentsApi(GitHubGraphQLClient client, String repositoryName, int prNumber) {
+        this.client = client;
+        String[] ownerAndName = repositoryName.split("/", 2);
+        this.owner = ownerAndName[0];
+        this.name = ownerAndName[1];
+        this.prNumber = prNumber;
+    }
+
+    @Override
+    public Optional<MaintainedComment> find(String bodyMarker, Optional<MaintainedCommentState> commentState) throws IOException {
+        if (commentState.isPresent() && commentState.get().nodeId != null) {
+            try {
+                JsonNode comment = client.execute(COMMENT_QUERY, Map.of("id", commentState.get().nodeId)).path("node");
+                if (contains(comment, bodyMarker)) {
+                    return Optional.of(new GraphQLMaintainedComment(comment));
+                }
+            } catch (IOException e) {
+                // the comment has probably been deleted, let's look for the marker
+            }
+        }
+
+        List<MaintainedComment> maintainedComments = find(bodyMarker, true);
+        return maintainedComments.isEmpty() ? Optional.empty() : Optional.of(maintainedComments.get(0));
+    }
+
+    @Override
+    public List<MaintainedComment> findAll(String bodyMarker) throws IOException {
+        return find(bodyMarker, false);
+    }
+
+    private List<MaintainedComment> find(String bodyMarker, boolean stopAtFirst) throws IOException {
+        List<MaintainedComment> maintainedComments = new ArrayList<>();
+
+        String after = null;
+        do {
+            Map<String, Object> variables = new HashMap<>();
+            variables.put("owner", owner);
+            variables.put("name", name);
+            variables.put("prNumber", prNumber);
+            variables.put("pageSize", PAGE_SIZE);
+            variables.put("after", after);
+
+            JsonNode pullRequest = client.execute(COMMENTS_QUERY, variables).path("repository").path("pullRequest");
+            if (!pullRequest.hasNonNull("id")) {
+                throw new IOException("Unable to find pull request #" + prNumber);
+            }
+            pullRequestId = pullRequest.path("id").asText();
+
+            JsonNode comments = pullRequest.path("comments");
+            JsonNode nodes = comments.path("nodes");
+            for (JsonNode node : nodes) {
+                if (contains(node, bodyMarker)) {
+                    maintainedComments.add(new GraphQLMaintainedComment(node));
+                    if (stopAtFirst) {
+                        return maintainedComments;
+                    }
+                }
+            }
+
+            JsonNode pageInfo = comments.path("pageInfo");
+            after = pageInfo.path("hasNextPage").asBoolean() ? pageInfo.path("endCursor").asText() : null;
+        } while (after != null);
+
+        return maintainedComments;
+    }
+
+    @Override
+    public MaintainedComment create(String body) throws IOException {
+        if (pullRequestId == null) {
+            pullRequestId = client.execute(PULL_REQUEST_ID_QUERY, Map.of("owner", owner, "name", name, "prNumber", prNumber))
+                    .path("repository").path("pullRequest").path("id").asText(null);
+            if (pullRequestId == null) {
+                throw new IOException("Unable to find pull request #" + prNumber);
+            }
+        }
+
+        JsonNode comment = client.execute(ADD_COMMENT_MUTATION, Map.of("subjectId", pullRequestId, "body", body))
+                .path("addComment").path("commentEdge").path("node");
+
+        return new GraphQLMaintainedComment(comment);
+    }
+
+    private static boolean contains(JsonNode comment, String bodyMarker) {
+        String body = comment.path("body").asText(null);
+        return body != null && body.contains(bodyMarker);
+    }
+
+    private class GraphQLMaintainedComment implements MaintainedComment {
+
+        private final long id;
+        private final String nodeId;
+        private final String body;
+
+        private GraphQLMaintainedComment(JsonNode comment) {
+            this.id = comment.path("databaseId").asLong();
+            this.nodeId = comment.path("id").asText();
+            this.body = comment.path("body").asText(null);
+        }
+
+        @Override
+        public long id() {
+            return id;
+        }
+
+        @Override
+        public String nodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public String body() {
+            return body;
+        }
+
+        @Override
+        public void update(String body) throws IOException {
+            // setting the same body twice is harmless
+            client.execute(UPDATE_COMMENT_MUTATION, Map.of("id", nodeId, "body", body), true);
+        }
+
+        @Override
+        public void delete() throws IOException {
+            client.execute(DELETE_COMMENT_MUTATION, Map.of("id", nodeId));
+        }
+    }
+}
@@ -1,38 +1,207 @@
 package io.quarkus.bot.maintainonecomment;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+
+import jakarta.inject.Inject;
 
-import org.kohsuke.github.GHIssueComment;
-import org.kohsuke.github.GHPullRequest;
 import org.kohsuke.github.GHRepository;
 import org.kohsuke.github.GitHub;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+
 import io.quarkiverse.githubaction.Action;
+import io.quarkiverse.githubaction.Commands;
 import io.quarkiverse.githubaction.Context;
 import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.batch.Batch;
+import io.quarkus.bot.github.GitHubClientFactory;
+import io.quarkus.bot.maintainonecomment.MaintainedCommentWriter.WriteResult;
+import io.quarkus.bot.maintainonecomment.MaintainedCommentsApi.MaintainedComment;
+import io.quarkus.bot.metrics.ActionMetrics;
+import io.quarkus.bot.metrics.ActionMetrics.Phase;
+import io.quarkus.runtime.annotations.RegisterForReflection;
 
 public class MaintainOneCommentAction {
 
+    /**
+     * We don't know the exact update date of the comment so we keep some margin.
+     */
+    private static final Duration UPDATED_AT_MARGIN = Duration.ofMinutes(5);
+
+    private static final String COMMENT_STATE_FILE = "comment-state-file";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    GitHubClientFactory gitHubClientFactory;
+
+    @Inject
+    ActionMetrics actionMetrics;
+
     @Action("maintain-one-comment")
-    void maintainOneComment(Context context, Inputs inputs, GitHub gitHub) throws IOException {
-        String body = inputs.getRequired("body");
+    void maintainOneComment(Context context, Commands commands, Inputs inputs) throws IOException {
+        try {
+            if (!Batch.runIfBatch("maintain-one-comment", objectMapper, commands, inputs, Set.of(COMMENT_STATE_FILE),
+                    (itemCommands, itemInputs) -> doMaintainOneComment(context, itemCommands, itemInputs))) {
+                doMaintainOneComment(context, commands, inputs);
+            }
+        } finally {
+            actionMetrics.publish("maintain-one-comment", commands, inputs);
+        }
+    }
+
+    @SuppressWarnings("try")
+    private void doMaintainOneComment(Context context, Commands commands, Inputs inputs) throws IOException {
+        Optional<String> body = readBody(commands, inputs);
+        if (body.isEmpty()) {
+            return;
+        }
         String bodyMarker = inputs.getRequired("body-marker");
         int prNumber = inputs.getRequiredInt("pr-number");
+        Optional<Path> commentStateFile = inputs.get(COMMENT_STATE_FILE).map(Path::of);
+        boolean concurrentUpdates = inputs.getBoolean("concurrent-updates").orElse(false);
+
+        Optional<MaintainedCommentState> commentState = readCommentState(commands, commentStateFile);
+
+        List<String> parts = MaintainedCommentParts.split(body.get(), bodyMarker, MaintainedCommentParts.MAX_COMMENT_LENGTH);
+
+        MaintainedCommentsApi maintainedCommentsApi;
+        List<MaintainedComment> maintainedComments;
+        try (Phase lookupPhase = actionMetrics.phase("lookup")) {
+            if ("graphql".equalsIgnoreCase(inputs.get("github-api").orElse("rest"))) {
+                maintainedCommentsApi = new GraphQLMaintainedCommentsApi(
+                        gitHubClientFactory.createGraphQL(context, commands, inputs), context.getGitHubRepository(), prNumber);
+            } else {
+                GitHub gitHub = gitHubClientFactory.create(context, commands, inputs);
+                GHRepository repository = gitHub.getRepository(context.getGitHubRepository());
+                maintainedCommentsApi = new RestMaintainedCommentsApi(repository.getPullRequest(prNumber));
+            }
+
+            maintainedComments = concurrentUpdates ? maintainedCommentsApi.findAll(bodyMarker)
+                    : findParts(maintainedCommentsApi, bodyMarker, commentState, parts.size());
+        }
+
+        long updatedAt = Instant.now().minus(UPDATED_AT_MARGIN).toEpochMilli();
+
+        WriteResult writeResult;
+        try (Phase updatePhase = actionMetrics.phase("update")) {
+            writeResult = new MaintainedCommentWriter(maintainedCommentsApi, bodyMarker, concurrentUpdates,
+                    MaintainedCommentWriter.DEFAULT_MAX_ATTEMPTS).write(parts, maintainedComments);
+        }
+        actionMetrics.recordWrites(writeResult.writes(), writeResult.skippedWrites());
+        if (writeResult.superseded()) {
+            commands.warning("The maintained comment has been written concurrently by another job, duplicates have been removed "
+                    + "and the content of the newer writer has been kept");
+        } else if (writeResult.attempts() > 1) {
+            commands.warning("The maintained comment has been written concurrently by another job, duplicates have been removed "
+                    + "and our content has been written again, after " + writeResult.attempts() + " attempts");
+        }
+
+        MaintainedComment comment = writeResult.comment();
+        boolean skipped = writeResult.skipped();
+
+        if (skipped) {
+            // the comment keeps its previous update date, we only know it if the state was about this comment
+            long commentId = comment.id();
+            updatedAt = commentState.filter(s -> s.commentId == commentId).map(s -> s.updatedAt).orElse(0L);
+        }
+
+        MaintainedCommentState newCommentState = new MaintainedCommentState();
+        newCommentState.commentId = comment.id();
+        newCommentState.nodeId = comment.nodeId();
+        newCommentState.updatedAt = updatedAt;
+
+        commands.setOutput("comment-id", String.valueOf(newCommentState.commentId));
+        writeCommentState(commands, commentStateFile, newCommentState);
+    }
+
+    /**
+     * The body is either provided by the {@code body} input or read from the file designated by the {@code body-file} input,
+     * which is preferred for large bodies as inputs are passed through the environment.
+     */
+    private static Optional<String> readBody(Commands commands, Inputs inputs) {
+        Optional<String> bodyFile = inputs.get("body-file");
+        if (bodyFile.isEmpty()) {
+            return Optional.of(inputs.getRequired("body"));
+        }
+
+        try {
+            return Optional.of(Files.readString(Path.of(bodyFile.get())));
+        } catch (IOException e) {
+            commands.error("Unable to read the body from " + bodyFile.get() + ": " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * If the body fits in one comment and the comment we found is not a part of a larger body, there are no other parts to
+     * reconcile and we can avoid listing all the comments.
+     *
+     * @return the existing parts, in ascending order
+     */
+    private static List<MaintainedComment> findParts(MaintainedCommentsApi maintainedCommentsApi, String bodyMarker,
+            Optional<MaintainedCommentState> commentState, int parts) throws IOException {
+        if (parts == 1) {
+            Optional<MaintainedComment> maintainedComment = maintainedCommentsApi.find(bodyMarker, commentState);
+            if (maintainedComment.isEmpty()) {
+                return List.of();
+            }
+            if (!MaintainedCommentParts.isPart(maintainedComment.get().body())) {
+                return List.of(maintainedComment.get());
+            }
+        }
 
-        GHRepository repository = gitHub.getRepository(context.getGitHubRepository());
-        GHPullRequest pullRequest = repository.getPullRequest(prNumber);
+        return maintainedCommentsApi.findAll(bodyMarker);
+    }
+
+    private Optional<MaintainedCommentState> readCommentState(Commands commands, Optional<Path> commentStateFile) {
+        if (commentStateFile.isEmpty() || !Files.isReadable(commentStateFile.get())) {
+            return Optional.empty();
+        }
 
-        Optional<GHIssueComment> maintainedComment = pullRequest.listComments().toList().stream()
-                .filter(c -> c.getBody() != null && c.getBody().contains(bodyMarker))
-                .findFirst();
+        try {
+            return Optional.of(objectMapper.readValue(commentStateFile.get().toFile(), MaintainedCommentState.class));
+        } catch (IOException e) {
+            commands.warning("Unable to read the comment state from " + commentStateFile.get() + ", ignoring: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-        String markedBody = body + "\n\n" + bodyMarker;
+    private void writeCommentState(Commands commands, Optional<Path> commentStateFile, MaintainedCommentState commentState) {
+        if (commentStateFile.isEmpty()) {
+            return;
+        }
 
-        if (maintainedComment.isEmpty()) {
-            pullRequest.comment(markedBody);
-        } else {
-            maintainedComment.get().update(markedBody);
+        try {
+            Path parent = commentStateFile.get().toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            objectMapper.writeValue(commentStateFile.get().toFile(), commentState);
+        } catch (IOException e) {
+            commands.warning("Unable to write the comment state to " + commentStateFile.get() + ": " + e.getMessage());
         }
     }
+
+    /**
+     * Where to find the maintained comment next time: the REST API allows to only list the comments updated since a given
+     * date, the GraphQL API allows to get the comment from its node id.
+     */
+    @RegisterForReflection
+    public static class MaintainedCommentState {
+
+        public long commentId;
+
+        public String nodeId;
+
+        public long updatedAt;
+    }
 }
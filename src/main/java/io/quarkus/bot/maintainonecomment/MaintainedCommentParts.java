@@ -0,0 +1,144 @@
+package io.quarkus.bot.maintainonecomment;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits a body too large for one comment into several parts, each maintained as its own comment.
+ * <p>
+ * All the parts carry the body marker, followed by a part marker giving their index. A body which fits in one comment
+ * doesn't get a part marker so that it is maintained exactly as before.
+ * <p>
+ * Bodies are split at line boundaries when possible and a code block interrupted by a split is closed at the end of the
+ * part and reopened at the beginning of the next one, so that each part renders correctly.
+ */
+final class MaintainedCommentParts {
+
+    /**
+     * The max length of a comment body on GitHub.
+     */
+    static final int MAX_COMMENT_LENGTH = 65_536;
+
+    private static final String PART_MARKER = "<!-- Quarkus-Bot/maintained-comment-part:%d -->";
+    private static final Pattern PART_MARKER_PATTERN = Pattern.compile("<!-- Quarkus-Bot/maintained-comment-part:(\\d+) -->");
+
+    /**
+     * Room for the part marker and the hash marker.
+     */
+    private static final int MARKERS_RESERVE = 200;
+    private static final String FENCE = "```";
+    private static final int MAX_FENCE_LENGTH = 100;
+    /**
+     * Room for closing a code block and reopening it in the next part.
+     */
+    private static final int FENCE_RESERVE = MAX_FENCE_LENGTH + FENCE.length() + 2;
+    private static final int MIN_CONTENT_LENGTH = 1_000;
+
+    private MaintainedCommentParts() {
+    }
+
+    /**
+     * @return the bodies of the parts, including the markers, in order
+     */
+    static List<String> split(String body, String bodyMarker, int maxLength) {
+        String suffix = "\n\n" + bodyMarker;
+        if (body.length() + suffix.length() + MARKERS_RESERVE <= maxLength) {
+            return List.of(body + suffix);
+        }
+
+        int maxContentLength = maxLength - suffix.length() - MARKERS_RESERVE - FENCE_RESERVE;
+        if (maxContentLength < MIN_CONTENT_LENGTH) {
+            throw new IllegalArgumentException("The body marker is too long to split the body into several comments");
+        }
+
+        List<String> contents = splitContent(body, maxContentLength);
+        List<String> parts = new ArrayList<>(contents.size());
+        for (int i = 0; i < contents.size(); i++) {
+            parts.add(contents.get(i) + suffix + "\n" + String.format(PART_MARKER, i + 1));
+        }
+        return parts;
+    }
+
+    /**
+     * @return the index of the part, starting at 1, a comment without part marker being the first part
+     */
+    static int getPartIndex(String commentBody) {
+        if (commentBody == null) {
+            return 1;
+        }
+        Matcher matcher = PART_MARKER_PATTERN.matcher(commentBody);
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 1;
+    }
+
+    static boolean isPart(String commentBody) {
+        return commentBody != null && PART_MARKER_PATTERN.matcher(commentBody).find();
+    }
+
+    private static List<String> splitContent(String body, int maxContentLength) {
+        List<String> contents = new ArrayList<>();
+
+        int start = 0;
+        String reopenedFence = null;
+        while (start < body.length()) {
+            String prefix = reopenedFence == null ? "" : reopenedFence + "\n";
+            int budget = maxContentLength - prefix.length();
+
+            int end;
+            if (body.length() - start <= budget) {
+                end = body.length();
+            } else {
+                end = start + budget;
+                int lastNewLine = body.lastIndexOf('\n', end - 1);
+                if (lastNewLine > start) {
+                    end = lastNewLine + 1;
+                } else if (Character.isHighSurrogate(body.charAt(end - 1))) {
+                    end--;
+                }
+            }
+
+            StringBuilder content = new StringBuilder(prefix).append(body, start, end);
+            reopenedFence = getOpenFence(content);
+            if (reopenedFence != null) {
+                if (content.charAt(content.length() - 1) != '\n') {
+                    content.append('\n');
+                }
+                content.append(FENCE);
+            }
+
+            contents.add(content.toString());
+            start = end;
+        }
+
+        return contents;
+    }
+
+    /**
+     * @return the line opening a code block left open at the end of the content, null if there is none
+     */
+    private static String getOpenFence(CharSequence content) {
+        String openFence = null;
+
+        int lineStart = 0;
+        while (lineStart < content.length()) {
+            int lineEnd = lineStart;
+            while (lineEnd < content.length() && content.charAt(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            String line = content.subSequence(lineStart, lineEnd).toString().strip();
+            if (line.startsWith(FENCE)) {
+                if (openFence == null) {
+                    openFence = line.length() <= MAX_FENCE_LENGTH ? line : FENCE;
+                } else if (line.equals(FENCE)) {
+                    openFence = null;
+                }
+            }
+
+            lineStart = lineEnd + 1;
+        }
+
+        return openFence;
+    }
+}
@@ -0,0 +1,232 @@
+package io.quarkus.bot.maintainonecomment;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import io.quarkus.bot.github.CommentHash;
+import io.quarkus.bot.maintainonecomment.MaintainedCommentsApi.MaintainedComment;
+
+/**
+ * Writes the parts of a maintained comment: parts that didn't change are left alone, the others are updated, created or
+ * deleted.
+ * <p>
+ * When several jobs maintain the same comment concurrently, they might all create it. In concurrent mode, we look for
+ * duplicates after writing and all the jobs deterministically keep the oldest comment of each part. GitHub doesn't support
+ * conditional updates of comments so we then check the hash marker of the comments that are kept:
+ * <ul>
+ * <li>if the first part has been written by another job, the comment has been superseded by a newer writer and its content
+ * is kept as is: the jobs don't overwrite each other,</li>
+ * <li>if we own the first part but another part has been written by another job, the comment mixes the content of both jobs
+ * and we write our remaining parts again, with a bounded number of attempts.</li>
+ * </ul>
+ * If a comment we update is deleted concurrently, the write is also attempted again on the comments that are kept.
+ */
+final class MaintainedCommentWriter {
+
+    static final CommentHash COMMENT_HASH = new CommentHash("Quarkus-Bot/maintained-comment-hash");
+
+    static final int DEFAULT_MAX_ATTEMPTS = 3;
+
+    private static final long BACKOFF_MIN_MILLIS = 100;
+    private static final long BACKOFF_MAX_MILLIS = 500;
+
+    private final MaintainedCommentsApi maintainedCommentsApi;
+    private final String bodyMarker;
+    private final boolean concurrent;
+    private final int maxAttempts;
+
+    MaintainedCommentWriter(MaintainedCommentsApi maintainedCommentsApi, String bodyMarker, boolean concurrent,
+            int maxAttempts) {
+        this.maintainedCommentsApi = maintainedCommentsApi;
+        this.bodyMarker = bodyMarker;
+        this.concurrent = concurrent;
+        this.maxAttempts = Math.max(1, maxAttempts);
+    }
+
+    /**
+     * @param parts the bodies of the parts, as returned by {@link MaintainedCommentParts#split(String, String, int)}
+     * @param existingComments the existing comments containing the marker, in ascending order
+     */
+    WriteResult write(List<String> parts, List<MaintainedComment> existingComments) throws IOException {
+        List<MaintainedComment> comments = existingComments;
+        int writes = 0;
+        int skippedWrites = 0;
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                Pass pass = reconcile(parts, comments);
+                writes += pass.writes;
+                skippedWrites += pass.skippedWrites;
+
+                if (!concurrent) {
+                    return new WriteResult(pass.first, pass.firstSkipped, writes, skippedWrites, attempt, false);
+                }
+
+                Map<Integer, MaintainedComment> keptParts = collapseDuplicates();
+                MaintainedComment first = keptParts.get(1);
+                if (isUpToDate(parts, keptParts)) {
+                    // our comment might have been deleted as a duplicate of a comment with the same content
+                    return new WriteResult(first, pass.firstSkipped, writes, skippedWrites, attempt, false);
+                }
+                if (first != null && (!isOwnPart(first, parts.get(0)) || attempt >= maxAttempts)) {
+                    // another job wrote the comment after us, or the comment we created was the duplicate: the newer
+                    // writer wins
+                    return new WriteResult(first, false, writes, skippedWrites, attempt, true);
+                }
+                // we own the first part, the other parts have to be written again
+            } catch (IOException e) {
+                // a comment we were updating has probably been deleted as a duplicate by a concurrent job
+                if (!concurrent || attempt >= maxAttempts) {
+                    throw e;
+                }
+            }
+
+            if (attempt >= maxAttempts) {
+                throw new IOException("Unable to find the maintained comment after " + attempt
+                        + " attempts because of concurrent updates");
+            }
+
+            backoff(attempt);
+            comments = maintainedCommentsApi.findAll(bodyMarker);
+        }
+    }
+
+    private Pass reconcile(List<String> parts, List<MaintainedComment> comments) throws IOException {
+        Pass pass = new Pass();
+
+        Map<Integer, MaintainedComment> existingParts = new HashMap<>();
+        for (MaintainedComment comment : comments) {
+            int partIndex = MaintainedCommentParts.getPartIndex(comment.body());
+            MaintainedComment kept = existingParts.get(partIndex);
+            if (kept == null) {
+                existingParts.put(partIndex, comment);
+            } else if (comment.id() < kept.id()) {
+                existingParts.put(partIndex, comment);
+                delete(kept);
+            } else {
+                delete(comment);
+            }
+        }
+
+        for (int i = 0; i < parts.size(); i++) {
+            // the hash is of the content we post so that we can tell a part is up to date without comparing the bodies
+            String hash = CommentHash.hash(parts.get(i));
+            MaintainedComment part = existingParts.remove(i + 1);
+            boolean skipped = false;
+
+            if (part == null) {
+                part = maintainedCommentsApi.create(COMMENT_HASH.mark(parts.get(i), hash));
+            } else if (COMMENT_HASH.isUpToDate(part.body(), hash)) {
+                skipped = true;
+            } else {
+                part.update(COMMENT_HASH.mark(parts.get(i), hash));
+            }
+
+            pass.writes++;
+            if (skipped) {
+                pass.skippedWrites++;
+            }
+            if (i == 0) {
+                pass.first = part;
+                pass.firstSkipped = skipped;
+            }
+        }
+
+        // the body got shorter
+        for (MaintainedComment extraPart : existingParts.values()) {
+            delete(extraPart);
+        }
+
+        return pass;
+    }
+
+    private static boolean isOwnPart(MaintainedComment comment, String part) {
+        return COMMENT_HASH.isUpToDate(comment.body(), CommentHash.hash(part));
+    }
+
+    /**
+     * The hash markers tell whether the comments that are kept have our content, whoever wrote it.
+     */
+    private static boolean isUpToDate(List<String> parts, Map<Integer, MaintainedComment> keptParts) {
+        if (keptParts.size() != parts.size()) {
+            return false;
+        }
+        for (int i = 0; i < parts.size(); i++) {
+            MaintainedComment part = keptParts.get(i + 1);
+            if (part == null || !isOwnPart(part, parts.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * All the jobs keep the oldest comment of each part, so that they agree on the comments to delete.
+     *
+     * @return the comments that are kept, by part index
+     */
+    private Map<Integer, MaintainedComment> collapseDuplicates() throws IOException {
+        Map<Integer, MaintainedComment> keptParts = new HashMap<>();
+        List<MaintainedComment> duplicates = new ArrayList<>();
+
+        for (MaintainedComment comment : maintainedCommentsApi.findAll(bodyMarker)) {
+            int partIndex = MaintainedCommentParts.getPartIndex(comment.body());
+            MaintainedComment kept = keptParts.get(partIndex);
+            if (kept == null || comment.id() < kept.id()) {
+                keptParts.put(partIndex, comment);
+                if (kept != null) {
+                    duplicates.add(kept);
+                }
+            } else {
+                duplicates.add(comment);
+            }
+        }
+
+        for (MaintainedComment duplicate : duplicates) {
+            delete(duplicate);
+        }
+        return keptParts;
+    }
+
+    private void delete(MaintainedComment comment) throws IOException {
+        try {
+            comment.delete();
+        } catch (IOException e) {
+            // in concurrent mode, another job might have deleted it already
+            if (!concurrent) {
+                throw e;
+            }
+        }
+    }
+
+    private static void backoff(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(BACKOFF_MIN_MILLIS, BACKOFF_MAX_MILLIS) * attempt);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting to write the maintained comment");
+        }
+    }
+
+    private static class Pass {
+
+        private MaintainedComment first;
+        private boolean firstSkipped;
+        private int writes;
+        private int skippedWrites;
+    }
+
+    /**
+     * @param comment the first part of the maintained comment
+     * @param skipped whether the write of the first part has been skipped as it was up to date
+     * @param superseded whether the comment has been written by another job after us and has its content instead of ours
+     */
+    record WriteResult(MaintainedComment comment, boolean skipped, int writes, int skippedWrites, int attempts,
+            boolean superseded) {
+    }
+}
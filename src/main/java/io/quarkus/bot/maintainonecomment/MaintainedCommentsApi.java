@@ -0,0 +1,40 @@
+package io.quarkus.bot.maintainonecomment;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import io.quarkus.bot.maintainonecomment.MaintainOneCommentAction.MaintainedCommentState;
+
+/**
+ * The GitHub operations needed to maintain a comment, implemented on top of the REST or the GraphQL API.
+ */
+interface MaintainedCommentsApi {
+
+    /**
+     * Looks for a comment containing the marker, trying the comment referenced by the state first if any.
+     */
+    Optional<MaintainedComment> find(String bodyMarker, Optional<MaintainedCommentState> commentState) throws IOException;
+
+    /**
+     * Looks for all the comments containing the marker, e.g. the parts of a maintained comment.
+     *
+     * @return the comments in ascending order
+     */
+    List<MaintainedComment> findAll(String bodyMarker) throws IOException;
+
+    MaintainedComment create(String body) throws IOException;
+
+    interface MaintainedComment {
+
+        long id();
+
+        String nodeId();
+
+        String body();
+
+        void update(String body) throws IOException;
+
+        void delete() throws IOException;
+    }
+}
@@ -0,0 +1,104 @@
+package io.quarkus.bot.maintainonecomment;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import org.kohsuke.github.GHIssueComment;
+import org.kohsuke.github.GHPullRequest;
+import org.kohsuke.github.PagedIterable;
+
+import io.quarkus.bot.maintainonecomment.MaintainOneCommentAction.MaintainedCommentState;
+
+class RestMaintainedCommentsApi implements MaintainedCommentsApi {
+
+    private static final int PAGE_SIZE = 100;
+
+    private final GHPullRequest pullRequest;
+
+    RestMaintainedCommentsApi(GHPullRequest pullRequest) {
+        this.pullRequest = pullRequest;
+    }
+
+    @Override
+    public Optional<MaintainedComment> find(String bodyMarker, Optional<MaintainedCommentState> commentState) throws IOException {
+        Optional<GHIssueComment> maintainedComment = Optional.empty();
+
+        // the REST API doesn't allow to get a single issue comment but we can only list the comments updated since the last update
+        if (commentState.isPresent() && commentState.get().updatedAt > 0) {
+            maintainedComment = find(pullRequest.queryComments().since(new Date(commentState.get().updatedAt)).list(), bodyMarker,
+                    commentState.get().commentId);
+        }
+        if (maintainedComment.isEmpty()) {
+            maintainedComment = find(pullRequest.listComments(), bodyMarker, null);
+        }
+
+        return maintainedComment.map(RestMaintainedComment::new);
+    }
+
+    @Override
+    public List<MaintainedComment> findAll(String bodyMarker) throws IOException {
+        List<MaintainedComment> maintainedComments = new ArrayList<>();
+        for (GHIssueComment comment : pullRequest.listComments().withPageSize(PAGE_SIZE)) {
+            if (comment.getBody() != null && comment.getBody().contains(bodyMarker)) {
+                maintainedComments.add(new RestMaintainedComment(comment));
+            }
+        }
+        return maintainedComments;
+    }
+
+    @Override
+    public MaintainedComment create(String body) throws IOException {
+        return new RestMaintainedComment(pullRequest.comment(body));
+    }
+
+    /**
+     * Pages are fetched lazily and we stop at the first match.
+     * <p>
+     * The REST API only lists the comments of an issue in ascending order, which is not that bad given the maintained comment
+     * is usually created early in the life of the pull request.
+     */
+    private static Optional<GHIssueComment> find(PagedIterable<GHIssueComment> comments, String bodyMarker,
+            Long expectedCommentId) {
+        for (GHIssueComment comment : comments.withPageSize(PAGE_SIZE)) {
+            if (expectedCommentId != null && comment.getId() != expectedCommentId) {
+                continue;
+            }
+            if (comment.getBody() != null && comment.getBody().contains(bodyMarker)) {
+                return Optional.of(comment);
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    private record RestMaintainedComment(GHIssueComment comment) implements MaintainedComment {
+
+        @Override
+        public long id() {
+            return comment.getId();
+        }
+
+        @Override
+        public String nodeId() {
+            return comment.getNodeId();
+        }
+
+        @Override
+        public String body() {
+            return comment.getBody();
+        }
+
+        @Override
+        public void update(String body) throws IOException {
+            comment.update(body);
+        }
+
+        @Override
+        public void delete() throws IOException {
+            comment.delete();
+        }
+    }
+}
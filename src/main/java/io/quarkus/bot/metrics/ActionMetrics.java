@@ -0,0 +1,308 @@
+package io.quarkus.bot.metrics;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Commands;
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.runtime.annotations.RegisterForReflection;
+
+/**
+ * Collects what an action costs: the GitHub API calls per endpoint and the time spent in each phase.
+ * <p>
+ * The calls are recorded by the connector so they are collected whatever the client used. The report is published to the
+ * job summary if the {@code metrics} input is enabled and to the JSON file designated by the {@code metrics-file} input.
+ */
+@Singleton
+public class ActionMetrics {
+
+    /**
+     * Upper bounds of the latency histogram buckets, in milliseconds. The last bucket is unbounded.
+     */
+    static final long[] LATENCY_BUCKETS = { 50, 100, 250, 500, 1_000, 2_500, 5_000, 10_000 };
+
+    private static final String UNBOUNDED_BUCKET = "+Inf";
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    private final Map<String, EndpointMetrics> endpoints = new TreeMap<>();
+    private final Map<String, RateLimit> rateLimits = new TreeMap<>();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private long writes;
+    private long skippedWrites;
+
+    public synchronized void recordCall(String endpoint, int statusCode, Duration latency) {
+        EndpointMetrics endpointMetrics = endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics());
+
+        endpointMetrics.count++;
+        if (statusCode == 304) {
+            endpointMetrics.notModified++;
+        } else if (statusCode >= 400) {
+            endpointMetrics.errors++;
+        }
+
+        long latencyMillis = latency.toMillis();
+        endpointMetrics.totalLatencyMillis += latencyMillis;
+        endpointMetrics.maxLatencyMillis = Math.max(endpointMetrics.maxLatencyMillis, latencyMillis);
+        endpointMetrics.latencyHistogram[bucket(latencyMillis)]++;
+    }
+
+    public synchronized void recordBytes(String endpoint, long bytes) {
+        endpoints.computeIfAbsent(endpoint, e -> new EndpointMetrics()).bytes += bytes;
+    }
+
+    /**
+     * We keep the lowest remaining quota seen for each resource.
+     */
+    public synchronized void recordRateLimit(String resource, int limit, int remaining, long resetEpochSeconds) {
+        RateLimit rateLimit = rateLimits.get(resource);
+        if (rateLimit == null || remaining < rateLimit.remaining) {
+            rateLimit = new RateLimit();
+            rateLimit.limit = limit;
+            rateLimit.remaining = remaining;
+            rateLimit.reset = resetEpochSeconds;
+            rateLimits.put(resource, rateLimit);
+        }
+    }
+
+    /**
+     * Records a write of content, e.g. a comment update, which might have been skipped as the content didn't change.
+     */
+    public void recordWrite(boolean skipped) {
+        recordWrites(1, skipped ? 1 : 0);
+    }
+
+    public synchronized void recordWrites(long writes, long skippedWrites) {
+        this.writes += writes;
+        this.skippedWrites += skippedWrites;
+    }
+
+    /**
+     * Starts timing a phase, the time is recorded when the returned phase is closed. Phases executed several times are
+     * cumulated.
+     * <p>
+     * The phase is meant to be used in a try-with-resources without being referenced, so the enclosing methods suppress the
+     * {@code try} lint warning.
+     */
+    public Phase phase(String name) {
+        return new Phase(name, System.nanoTime());
+    }
+
+    synchronized void recordPhase(String name, Duration duration) {
+        phases.merge(name, duration.toMillis(), Long::sum);
+    }
+
+    public void publish(String action, Commands commands, Inputs inputs) {
+        MetricsReport report = getReport(action);
+
+        if (inputs.getBoolean("metrics").orElse(false)) {
+            commands.appendJobSummary(toMarkdown(report));
+        } else if (report.skippedWrites > 0) {
+            commands.appendJobSummary(toWritesMarkdown(report));
+        }
+
+        Optional<String> metricsFile = inputs.get("metrics-file");
+        if (metricsFile.isPresent()) {
+            try {
+                Path path = Path.of(metricsFile.get());
+                Path parent = path.toAbsolutePath().getParent();
+                if (parent != null) {
+                    Files.createDirectories(parent);
+                }
+                objectMapper.writerWithDefaultPrettyPrinter().writeValue(path.toFile(), report);
+            } catch (IOException e) {
+                commands.warning("Unable to write the metrics to " + metricsFile.get() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    public synchronized MetricsReport getReport(String action) {
+        MetricsReport report = new MetricsReport();
+        report.action = action;
+        report.phases = new LinkedHashMap<>(phases);
+        report.writes = writes;
+        report.skippedWrites = skippedWrites;
+
+        for (Map.Entry<String, EndpointMetrics> entry : endpoints.entrySet()) {
+            EndpointMetrics endpointMetrics = entry.getValue();
+
+            EndpointReport endpointReport = new EndpointReport();
+            endpointReport.endpoint = entry.getKey();
+            endpointReport.count = endpointMetrics.count;
+            endpointReport.notModified = endpointMetrics.notModified;
+            endpointReport.errors = endpointMetrics.errors;
+            endpointReport.bytes = endpointMetrics.bytes;
+            endpointReport.totalLatencyMillis = endpointMetrics.totalLatencyMillis;
+            endpointReport.maxLatencyMillis = endpointMetrics.maxLatencyMillis;
+            endpointReport.latencyHistogram = new LinkedHashMap<>();
+            for (int i = 0; i < endpointMetrics.latencyHistogram.length; i++) {
+                endpointReport.latencyHistogram.put(i < LATENCY_BUCKETS.length ? String.valueOf(LATENCY_BUCKETS[i])
+                        : UNBOUNDED_BUCKET, endpointMetrics.latencyHistogram[i]);
+            }
+
+            report.endpoints.add(endpointReport);
+            report.totalCalls += endpointReport.count;
+            report.totalNotModified += endpointReport.notModified;
+            report.totalBytes += endpointReport.bytes;
+        }
+
+        report.rateLimits = new TreeMap<>(rateLimits);
+
+        return report;
+    }
+
+    static String toMarkdown(MetricsReport report) {
+        StringBuilder markdown = new StringBuilder();
+        markdown.append("### Metrics for ").append(report.action).append("\n\n");
+
+        if (!report.phases.isEmpty()) {
+            markdown.append("| Phase | Duration (ms) |\n");
+            markdown.append("| --  | --:  |\n");
+            for (Map.Entry<String, Long> phase : report.phases.entrySet()) {
+                markdown.append("| ").append(phase.getKey()).append(" | ").append(phase.getValue()).append(" |\n");
+            }
+            markdown.append('\n');
+        }
+
+        markdown.append("GitHub API calls: ").append(report.totalCalls).append(" (").append(report.totalNotModified)
+                .append(" not modified), ").append(report.totalBytes).append(" bytes received\n\n");
+
+        if (report.writes > 0) {
+            markdown.append(toWritesMarkdown(report));
+        }
+
+        if (!report.endpoints.isEmpty()) {
+            markdown.append("| Endpoint | Calls | 304 | Errors | Bytes | Avg (ms) | Max (ms) |\n");
+            markdown.append("| --  | --:  | --:  | --:  | --:  | --:  | --:  |\n");
+            for (EndpointReport endpoint : report.endpoints) {
+                markdown.append("| `").append(endpoint.endpoint).append("` | ").append(endpoint.count)
+                        .append(" | ").append(endpoint.notModified)
+                        .append(" | ").append(endpoint.errors)
+                        .append(" | ").append(endpoint.bytes)
+                        .append(" | ").append(endpoint.count == 0 ? 0 : endpoint.totalLatencyMillis / endpoint.count)
+                        .append(" | ").append(endpoint.maxLatencyMillis).append(" |\n");
+            }
+            markdown.append('\n');
+        }
+
+        for (Map.Entry<String, RateLimit> rateLimit : report.rateLimits.entrySet()) {
+            markdown.append("Rate limit `").append(rateLimit.getKey()).append("`: ")
+                    .append(rateLimit.getValue().remaining).append('/').append(rateLimit.getValue().limit)
+                    .append(" remaining\n\n");
+        }
+
+        return markdown.toString();
+    }
+
+    private static String toWritesMarkdown(MetricsReport report) {
+        return "Writes: " + report.writes + " (" + report.skippedWrites + " skipped as the content didn't change)\n\n";
+    }
+
+    private static int bucket(long latencyMillis) {
+        for (int i = 0; i < LATENCY_BUCKETS.length; i++) {
+            if (latencyMillis <= LATENCY_BUCKETS[i]) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS.length;
+    }
+
+    public class Phase implements AutoCloseable {
+
+        private final String name;
+        private final long start;
+
+        private Phase(String name, long start) {
+            this.name = name;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            recordPhase(name, Duration.ofNanos(System.nanoTime() - start));
+        }
+    }
+
+    private static class EndpointMetrics {
+
+        private long count;
+        private long notModified;
+        private long errors;
+        private long bytes;
+        private long totalLatencyMillis;
+        private long maxLatencyMillis;
+        private final long[] latencyHistogram = new long[LATENCY_BUCKETS.length + 1];
+    }
+
+    @RegisterForReflection
+    public static class MetricsReport {
+
+        public String action;
+
+        public Map<String, Long> phases;
+
+        public long totalCalls;
+
+        public long totalNotModified;
+
+        public long totalBytes;
+
+        public long writes;
+
+        public long skippedWrites;
+
+        public List<EndpointReport> endpoints = new ArrayList<>();
+
+        public Map<String, RateLimit> rateLimits;
+    }
+
+    @RegisterForReflection
+    public static class EndpointReport {
+
+        public String endpoint;
+
+        public long count;
+
+        public long notModified;
+
+        public long errors;
+
+        public long bytes;
+
+        public long totalLatencyMillis;
+
+        public long maxLatencyMillis;
+
+        /**
+         * Number of calls per latency bucket, keyed by the upper bound of the bucket in milliseconds.
+         */
+        public Map<String, Long> latencyHistogram;
+    }
+
+    @RegisterForReflection
+    public static class RateLimit {
+
+        public int limit;
+
+        public int remaining;
+
+        /**
+         * When the quota is reset, in epoch seconds.
+         */
+        public long reset;
+    }
+}
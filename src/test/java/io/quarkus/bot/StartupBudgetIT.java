@@ -0,0 +1,84 @@
+package io.quarkus.bot;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Measures the time needed to run an action that exits right away, i.e. mostly the startup time, and fails if it goes past
+ * the budget.
+ * <p>
+ * It runs the artifact produced by the build, as recorded in {@code target/quarkus-artifact.properties}: the native
+ * executable when built with {@code -Dnative}, the jar otherwise. The budgets can be adjusted with the
+ * {@code startup.budget.native.ms} and {@code startup.budget.jvm.ms} system properties.
+ */
+public class StartupBudgetIT {
+
+    private static final long DEFAULT_NATIVE_BUDGET_MS = 500;
+    private static final long DEFAULT_JVM_BUDGET_MS = 5_000;
+    private static final int RUNS = 5;
+
+    @Test
+    void testStartupBudget() throws IOException, InterruptedException {
+        Properties artifact = new Properties();
+        Path target = Path.of("target");
+        try (InputStream artifactProperties = Files.newInputStream(target.resolve("quarkus-artifact.properties"))) {
+            artifact.load(artifactProperties);
+        }
+
+        boolean nativeExecutable = "native".equals(artifact.getProperty("type"));
+        Path artifactPath = target.resolve(artifact.getProperty("path")).toAbsolutePath();
+
+        List<String> command = new ArrayList<>();
+        if (!nativeExecutable) {
+            command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+            command.add("-jar");
+        }
+        command.add(artifactPath.toString());
+
+        long budget = Long.getLong(nativeExecutable ? "startup.budget.native.ms" : "startup.budget.jvm.ms",
+                nativeExecutable ? DEFAULT_NATIVE_BUDGET_MS : DEFAULT_JVM_BUDGET_MS);
+
+        List<Long> durations = new ArrayList<>();
+        for (int i = 0; i < RUNS; i++) {
+            durations.add(run(command).toMillis());
+        }
+        Collections.sort(durations);
+        long median = durations.get(RUNS / 2);
+
+        assertThat(median).as("Median startup time in ms of %s over %d runs %s", artifactPath.getFileName(), RUNS, durations)
+                .isLessThanOrEqualTo(budget);
+    }
+
+    private static Duration run(List<String> command) throws IOException, InterruptedException {
+        ProcessBuilder processBuilder = new ProcessBuilder(command).redirectErrorStream(true);
+        // no build metadata file path: the action only emits a warning and exits
+        processBuilder.environment().put("JSON_INPUTS", "{\"action\":\"inject-build-scans\"}");
+
+        long start = System.nanoTime();
+        Process process = processBuilder.start();
+        String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+        if (!process.waitFor(1, TimeUnit.MINUTES)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("The action did not exit in time: " + output);
+        }
+        Duration duration = Duration.ofNanos(System.nanoTime() - start);
+
+        assertThat(process.exitValue()).as(output).isZero();
+        assertThat(output).contains("Build metadata file path input is not provided");
+
+        return duration;
+    }
+}
@@ -0,0 +1,168 @@
+package io.quarkus.bot.batch;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Commands;
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.batch.Batch.ItemResult;
+
+public class BatchTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadManifest() throws IOException {
+        Path manifest = tempDir.resolve("batch.json");
+        Files.writeString(manifest, """
+                [
+                  { "workflow-run-id": 123, "build-metadata-file-path": "run-123/build-metadata.json" },
+                  { "workflow-run-id": 456, "metrics": null }
+                ]
+                """);
+
+        List<Inputs> items = Batch.readManifest(new ObjectMapper(), manifest,
+                inputs(Map.of("action", "inject-build-scans", "batch-file", manifest.toString(),
+                        "build-metadata-file-path", "build-metadata.json", "metrics", "true")), Set.of());
+
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).getAction()).isEqualTo("inject-build-scans");
+        assertThat(items.get(0).getRequiredLong("workflow-run-id")).isEqualTo(123);
+        assertThat(items.get(0).getRequired("build-metadata-file-path")).isEqualTo("run-123/build-metadata.json");
+        assertThat(items.get(0).get("batch-file")).isEmpty();
+        assertThat(items.get(1).getRequiredLong("workflow-run-id")).isEqualTo(456);
+        assertThat(items.get(1).getRequired("build-metadata-file-path")).isEqualTo("build-metadata.json");
+        assertThat(items.get(1).get("metrics")).isEmpty();
+
+        Files.writeString(manifest, "{ \"workflow-run-id\": 123 }");
+        assertThatThrownBy(() -> Batch.readManifest(new ObjectMapper(), manifest, inputs(Map.of()), Set.of()))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void testItemsCannotShareItemScopedInputs() throws IOException {
+        Path manifest = tempDir.resolve("batch.json");
+        Files.writeString(manifest, """
+                [
+                  { "pr-number": 1 },
+                  { "pr-number": 2 }
+                ]
+                """);
+        Inputs defaults = inputs(Map.of("comment-state-file", "comment-state.json"));
+
+        // the state file of the action would be written concurrently by both items
+        assertThatThrownBy(() -> Batch.readManifest(new ObjectMapper(), manifest, defaults, Set.of("comment-state-file")))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("#1 and #2 share the same comment-state-file input comment-state.json");
+
+        Files.writeString(manifest, """
+                [
+                  { "pr-number": 1, "comment-state-file": "comment-state-1.json" },
+                  { "pr-number": 2, "comment-state-file": "comment-state-2.json" }
+                ]
+                """);
+        List<Inputs> items = Batch.readManifest(new ObjectMapper(), manifest, defaults, Set.of("comment-state-file"));
+        assertThat(items).extracting(i -> i.getRequired("comment-state-file"))
+                .containsExactly("comment-state-1.json", "comment-state-2.json");
+
+        // the input being absent is fine
+        assertThat(Batch.readManifest(new ObjectMapper(), manifest, inputs(Map.of()), Set.of("metrics-file"))).hasSize(2);
+    }
+
+    @Test
+    void testJobSummaryIsAppendedByOneItemAtATime() {
+        AtomicInteger appending = new AtomicInteger();
+        AtomicInteger maxAppending = new AtomicInteger();
+        List<String> summaries = Collections.synchronizedList(new ArrayList<>());
+        Commands commands = (Commands) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { Commands.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("appendJobSummary")) {
+                        maxAppending.accumulateAndGet(appending.incrementAndGet(), Math::max);
+                        Thread.sleep(20);
+                        summaries.add((String) args[0]);
+                        appending.decrementAndGet();
+                    }
+                    return null;
+                });
+
+        List<ItemResult> results = Batch.run(List.of(inputs(Map.of("pr-number", "1")), inputs(Map.of("pr-number", "2"))),
+                2, commands, (itemCommands, inputs) -> {
+                    for (int i = 0; i < 3; i++) {
+                        itemCommands.appendJobSummary("Summary of #" + inputs.getRequired("pr-number"));
+                    }
+                });
+
+        assertThat(results).hasSize(2).allMatch(ItemResult::success);
+        assertThat(summaries).hasSize(6);
+        assertThat(maxAppending.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testFailuresAreReportedPerItem() {
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+
+        List<ItemResult> results = Batch.run(
+                List.of(inputs(Map.of("pr-number", "1")), inputs(Map.of("pr-number", "2")), inputs(Map.of("name", "third"))),
+                2, recording(messages), (commands, inputs) -> {
+                    switch (inputs.get("pr-number").orElse("")) {
+                        case "1" -> commands.setOutput("comment-id", "42");
+                        case "2" -> commands.error("Unable to update the comment");
+                        default -> throw new IllegalStateException("Boom");
+                    }
+                });
+
+        assertThat(results).extracting(ItemResult::label).containsExactly("#1", "#2", "third");
+        assertThat(results).extracting(ItemResult::success).containsExactly(true, false, false);
+        assertThat(results.get(0).details()).isEqualTo("comment-id: 42");
+        assertThat(results.get(1).details()).isEqualTo("Unable to update the comment");
+        assertThat(results.get(2).details()).contains("Boom");
+        assertThat(messages).contains("error: [#2] Unable to update the comment");
+
+        String markdown = Batch.toMarkdown("maintain-one-comment", results);
+        assertThat(markdown).contains("1 succeeded, 2 failed")
+                .contains("| :white_check_mark: | #1 | ")
+                .contains("| :x: | #2 | ");
+    }
+
+    @Test
+    void testConcurrencyIsBounded() {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<Inputs> items = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            items.add(inputs(Map.of("pr-number", String.valueOf(i))));
+        }
+
+        List<ItemResult> results = Batch.run(items, 3, recording(new ArrayList<>()), (commands, inputs) -> {
+            maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            running.decrementAndGet();
+        });
+
+        assertThat(results).hasSize(12).allMatch(ItemResult::success);
+        assertThat(maxRunning.get()).isBetween(1, 3);
+    }
+
+    private static Inputs inputs(Map<String, String> inputs) {
+        return () -> inputs;
+    }
+}
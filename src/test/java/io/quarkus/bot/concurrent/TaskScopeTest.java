@@ -0,0 +1,69 @@
+package io.quarkus.bot.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.concurrent.TaskScope.State;
+import io.quarkus.bot.concurrent.TaskScope.Subtask;
+
+public class TaskScopeTest {
+
+    @Test
+    void testConcurrentSubtasks() throws IOException {
+        CountDownLatch latch = new CountDownLatch(2);
+
+        try (TaskScope scope = TaskScope.concurrent("test")) {
+            // each subtask waits for the other one so this only succeeds if they run concurrently
+            Subtask<Boolean> first = scope.fork(() -> {
+                latch.countDown();
+                return latch.await(10, TimeUnit.SECONDS);
+            });
+            Subtask<Boolean> second = scope.fork(() -> {
+                latch.countDown();
+                return latch.await(10, TimeUnit.SECONDS);
+            });
+            scope.join().throwIfFailed();
+
+            assertThat(first.get()).isTrue();
+            assertThat(second.get()).isTrue();
+        }
+    }
+
+    @Test
+    void testFailureCancelsOtherSubtasks() throws IOException {
+        try (TaskScope scope = TaskScope.concurrent("test")) {
+            Subtask<Object> slow = scope.fork(() -> {
+                Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                return null;
+            });
+            scope.fork(() -> {
+                throw new IOException("Boom");
+            });
+
+            assertThatThrownBy(() -> scope.join().throwIfFailed()).isInstanceOf(IOException.class).hasMessage("Boom");
+            assertThat(slow.state()).isIn(State.UNAVAILABLE, State.FAILED);
+        }
+    }
+
+    @Test
+    void testSequentialSubtasks() {
+        try (TaskScope scope = TaskScope.sequential()) {
+            Subtask<String> first = scope.fork(() -> Thread.currentThread().getName());
+            assertThat(first.get()).isEqualTo(Thread.currentThread().getName());
+
+            scope.fork(() -> {
+                throw new IllegalStateException("Boom");
+            });
+            Subtask<String> skipped = scope.fork(() -> "skipped");
+
+            assertThat(skipped.state()).isEqualTo(State.CANCELLED);
+            assertThatThrownBy(() -> scope.join().throwIfFailed()).isInstanceOf(IllegalStateException.class);
+        }
+    }
+}
@@ -3,16 +3,22 @@ package io.quarkus.bot.develocity;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
 import java.util.stream.Collectors;
 
 import jakarta.inject.Inject;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 
 import com.fasterxml.jackson.core.exc.StreamReadException;
 import com.fasterxml.jackson.databind.DatabindException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatus;
 import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatuses;
 import io.quarkus.test.junit.QuarkusTest;
 
@@ -43,4 +49,62 @@ public class BuildMetadataJsonParsingTest {
                         "Native Tests - Virtual Thread - Main", "Native Tests - Virtual Thread - Messaging",
                         "Native Tests - Windows - RESTEasy Jackson");
     }
+
+    @Test
+    void testStreamingParsing() throws IOException, URISyntaxException {
+        BuildMetadataReader buildMetadataReader = new BuildMetadataReader(objectMapper.getFactory());
+
+        Path buildMetadataJson = getResourcePath("develocity/build-metadata.json");
+        BuildScanStatuses statuses = buildMetadataReader.read(buildMetadataReader.resolve(buildMetadataJson.toString()));
+        BuildScanStatuses expectedStatuses = objectMapper.readValue(buildMetadataJson.toFile(), BuildScanStatuses.class);
+
+        assertThat(statuses.prNumber).isEqualTo(36961);
+        assertThat(statuses.builds.stream().map(s -> s.jobName + " " + s.buildScanLink).collect(Collectors.toList()))
+                .isEqualTo(expectedStatuses.builds.stream().map(s -> s.jobName + " " + s.buildScanLink)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void testFragmentsParsing() throws IOException, URISyntaxException {
+        BuildMetadataReader buildMetadataReader = new BuildMetadataReader(objectMapper.getFactory());
+        Path fragmentsDirectory = getResourcePath("develocity/build-metadata-fragments");
+
+        List<Path> files = buildMetadataReader.resolve(fragmentsDirectory.toString());
+        assertThat(files).hasSize(3);
+        assertThat(buildMetadataReader.resolve(fragmentsDirectory + "/jvm-tests-*/build-metadata.json")).hasSize(2);
+
+        BuildScanStatuses statuses = buildMetadataReader.read(files);
+
+        assertThat(statuses.prNumber).isEqualTo(36961);
+        assertThat(statuses.builds.stream().map(s -> s.jobName).collect(Collectors.toList()))
+                .containsExactly("Initial JDK 17 Build", "JVM Tests - JDK 17", "JVM Tests - JDK 21", "Native Tests - Main");
+
+        BuildScanStatus jvmTestsJdk17 = statuses.builds.stream().filter(s -> s.jobName.equals("JVM Tests - JDK 17")).findFirst()
+                .orElseThrow();
+        assertThat(jvmTestsJdk17.buildFailure).isFalse();
+        assertThat(jvmTestsJdk17.buildScanLink).isEqualTo("https://ge.quarkus.io/s/second-attempt");
+    }
+
+    @Test
+    void testRecursiveGlobMatchesTopLevelFragments(@TempDir Path directory) throws IOException {
+        Path topLevelFragment = directory.resolve("build-metadata.json");
+        Path nestedFragment = directory.resolve("native-tests/build-metadata.json");
+        Files.createDirectories(nestedFragment.getParent());
+        Files.writeString(topLevelFragment, """
+                { "prNumber": 36961, "builds": [ { "jobName": "JVM Tests - JDK 17", "buildFailure": false } ] }
+                """);
+        Files.writeString(nestedFragment, """
+                { "prNumber": 36961, "builds": [ { "jobName": "Native Tests - Main", "buildFailure": true } ] }
+                """);
+
+        BuildMetadataReader buildMetadataReader = new BuildMetadataReader(objectMapper.getFactory());
+
+        assertThat(buildMetadataReader.resolve(directory + "/**/*.json"))
+                .containsExactlyInAnyOrder(topLevelFragment, nestedFragment);
+        assertThat(buildMetadataReader.resolve(directory + "/**/native-tests/*.json")).containsExactly(nestedFragment);
+    }
+
+    private static Path getResourcePath(String resource) throws URISyntaxException {
+        return Path.of(BuildMetadataJsonParsingTest.class.getClassLoader().getResource(resource).toURI());
+    }
 }
@@ -0,0 +1,170 @@
+package io.quarkus.bot.develocity;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.quarkus.bot.develocity.BuildScanEnricher.BuildScanDetails;
+
+public class BuildScanEnricherTest {
+
+    private static final String BUILD = """
+            {"id": "%s", "models": {
+              "mavenAttributes": {"model": {"buildDuration": 754000}},
+              "mavenBuildCachedPerformance": {"model": {"goalExecution": [
+                {"avoidanceOutcome": "avoided_from_local_cache"},
+                {"avoidanceOutcome": "avoided_from_remote_cache"},
+                {"avoidanceOutcome": "executed_cacheable"},
+                {"avoidanceOutcome": "executed_not_cacheable"}
+              ]}}
+            }}
+            """;
+    private static final String TESTS = """
+            {"workUnits": [
+              {"name": "core", "outcomeDistribution": {"total": 120, "failed": 2}},
+              {"name": "arc", "outcomeDistribution": {"total": 30, "failed": 0}}
+            ]}
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+    private String serverUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/api/", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        serverUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    void testEnrich(@TempDir Path cacheDirectory) throws InterruptedException {
+        List<String> links = List.of(serverUrl + "/s/scan1", serverUrl + "/s/scan2", serverUrl + "/s/missing",
+                serverUrl + "/s/slow", "https://example.com/not-a-build-scan");
+
+        Map<String, BuildScanDetails> details = enricher(2, Optional.of(cacheDirectory)).enrich(links);
+
+        // the unknown and the slow build scans are tolerated and rendered without details
+        assertThat(details).containsOnlyKeys(serverUrl + "/s/scan1", serverUrl + "/s/scan2");
+        BuildScanDetails scan1 = details.get(serverUrl + "/s/scan1");
+        assertThat(scan1.buildDurationMillis).isEqualTo(754_000L);
+        assertThat(scan1.tests).isEqualTo(150);
+        assertThat(scan1.failedTests).isEqualTo(2);
+        assertThat(scan1.cacheHitRatio).isEqualTo(2.0 / 3);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(2);
+
+        // the details are served from the cache on the next run
+        int requestsBefore = requests.get();
+        Map<String, BuildScanDetails> cachedDetails = enricher(2, Optional.of(cacheDirectory))
+                .enrich(List.of(serverUrl + "/s/scan1", serverUrl + "/s/scan2"));
+        assertThat(requests.get()).isEqualTo(requestsBefore);
+        assertThat(cachedDetails.get(serverUrl + "/s/scan2").tests).isEqualTo(150);
+    }
+
+    @Test
+    void testForeignLinksAreIgnored() throws InterruptedException {
+        int port = server.getAddress().getPort();
+        // the links resolve to our test server but they are not links of the configured Develocity server
+        List<String> links = List.of("http://localhost:" + port + "/s/scan1", "https://127.0.0.1:" + port + "/s/scan2",
+                "http://127.0.0.1:" + port + "@localhost:" + port + "/s/scan3", "http://127.0.0.1/s/scan4");
+
+        Map<String, BuildScanDetails> details = enricher(2, Optional.empty()).enrich(links);
+
+        assertThat(details).isEmpty();
+        assertThat(requests.get()).isZero();
+    }
+
+    @Test
+    void testFromInputs() {
+        List<String> messages = new ArrayList<>();
+
+        assertThat(BuildScanEnricher.fromInputs(objectMapper, recording(messages),
+                () -> Map.of("develocity-enrichment", "true", "develocity-access-key", "secret"))).isEmpty();
+        assertThat(messages).containsExactly(
+                "warning: Develocity enrichment requires the develocity-server-url input, ignoring");
+
+        Optional<BuildScanEnricher> enricher = BuildScanEnricher.fromInputs(objectMapper, recording(messages),
+                () -> Map.of("develocity-enrichment", "true", "develocity-server-url", "https://ge.quarkus.io/"));
+        assertThat(enricher).isPresent();
+        assertThat(enricher.get().getBuildScanId("https://ge.quarkus.io/s/abc123")).contains("abc123");
+        assertThat(enricher.get().getBuildScanId("https://GE.quarkus.io:443/s/abc123/")).contains("abc123");
+        assertThat(enricher.get().getBuildScanId("https://ge.quarkus.io.example.com/s/abc123")).isEmpty();
+        assertThat(enricher.get().getBuildScanId("http://ge.quarkus.io/s/abc123")).isEmpty();
+        assertThat(enricher.get().getBuildScanId("https://ge.quarkus.io/scans")).isEmpty();
+    }
+
+    private BuildScanEnricher enricher(int concurrency, Optional<Path> cacheDirectory) {
+        return new BuildScanEnricher(HttpClient.newHttpClient(), objectMapper, URI.create(serverUrl), Optional.of("secret"),
+                concurrency, Duration.ofMillis(500), cacheDirectory);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            String path = exchange.getRequestURI().getPath();
+            String buildScanId = path.substring(path.lastIndexOf('/') + 1);
+
+            if (!"Bearer secret".equals(exchange.getRequestHeaders().getFirst("Authorization"))
+                    || buildScanId.equals("missing")) {
+                respond(exchange, 404, "{}");
+                return;
+            }
+            if (buildScanId.equals("slow")) {
+                Thread.sleep(2_000);
+            }
+
+            respond(exchange, 200, path.startsWith("/api/tests/") ? TESTS : BUILD.formatted(buildScanId));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            inFlight.decrementAndGet();
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int statusCode, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(statusCode, bytes.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(bytes);
+        } catch (IOException e) {
+            // the client might have given up
+        }
+    }
+}
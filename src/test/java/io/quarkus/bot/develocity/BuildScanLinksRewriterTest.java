@@ -0,0 +1,50 @@
+package io.quarkus.bot.develocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+public class BuildScanLinksRewriterTest {
+
+    @Test
+    void testRewrite() {
+        BuildScanLinksRewriter rewriter = new BuildScanLinksRewriter(Map.of(
+                "JVM Tests - JDK 17", "https://ge.quarkus.io/s/jvm17",
+                "JVM Tests - JDK 17 Windows", "https://ge.quarkus.io/s/jvm17windows"));
+
+        String body = """
+                ### :waning_crescent_moon: Build Reporter
+
+                :construction: means the build scan is not yet available.
+
+                | Status | Name | Step | Failures | Logs | Raw logs | Build scan |
+                | :-:  | --  | --  | :-:  | :-:  | :-:  | :-:  |
+                | ✖ | JVM Tests - JDK 17 | `Build` | [Failures](#jvm-17) | [Logs](https://logs/1) | [Raw logs](https://raw/1) | :construction:
+                | ✖ | JVM Tests - JDK 17 Windows | `Build` | [Failures](#jvm-17-windows) | [Logs](https://logs/2) | [Raw logs](https://raw/2) | :construction:
+                | ✖ | JVM Tests - JDK 21 | `Build` | [Failures](#jvm-21) | [Logs](https://logs/3) | [Raw logs](https://raw/3) | :construction:
+                """;
+
+        assertThat(rewriter.rewrite(body)).isEqualTo("""
+                ### :waning_crescent_moon: Build Reporter
+
+                :construction: means the build scan is not yet available.
+
+                | Status | Name | Step | Failures | Logs | Raw logs | Build scan |
+                | :-:  | --  | --  | :-:  | :-:  | :-:  | :-:  |
+                | ✖ | JVM Tests - JDK 17 | `Build` | [Failures](#jvm-17) | [Logs](https://logs/1) | [Raw logs](https://raw/1) | [:mag:](https://ge.quarkus.io/s/jvm17)
+                | ✖ | JVM Tests - JDK 17 Windows | `Build` | [Failures](#jvm-17-windows) | [Logs](https://logs/2) | [Raw logs](https://raw/2) | [:mag:](https://ge.quarkus.io/s/jvm17windows)
+                | ✖ | JVM Tests - JDK 21 | `Build` | [Failures](#jvm-21) | [Logs](https://logs/3) | [Raw logs](https://raw/3) | :construction:
+                """);
+    }
+
+    @Test
+    void testBodyIsKeptAsIs() {
+        BuildScanLinksRewriter rewriter = new BuildScanLinksRewriter(Map.of("Initial JDK 17 Build", "https://ge.quarkus.io/s/initial"));
+
+        String body = "| :construction: | Other job |\r\n\r\nNo trailing new line";
+
+        assertThat(rewriter.rewrite(body)).isSameAs(body).isEqualTo(body);
+    }
+}
@@ -0,0 +1,130 @@
+package io.quarkus.bot.develocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.develocity.BuildScanEnricher.BuildScanDetails;
+import io.quarkus.bot.develocity.InjectBuildScansAction.BuildScanStatus;
+
+public class BuildScansCheckRunRendererTest {
+
+    private static final Pattern JOB_NAME = Pattern.compile("^\\| .+? \\| (Job [0-9]+) \\|", Pattern.MULTILINE);
+
+    @Test
+    void testSinglePage() {
+        List<String> pages = new BuildScansCheckRunRenderer().render(List.of(
+                build("JVM Tests - JDK 17", false, "https://ge.quarkus.io/s/jvm17"),
+                build("JVM Tests - JDK 21", true, "https://ge.quarkus.io/s/jvm21"),
+                build("Native Tests - Main", null, null)));
+
+        assertThat(pages).containsExactly("""
+                | Status | Name | Build scan |
+                | :-:  | --  | :-:  |
+                | :heavy_check_mark: | JVM Tests - JDK 17 | [:mag:](https://ge.quarkus.io/s/jvm17) |
+                | ✖ | JVM Tests - JDK 21 | [:mag:](https://ge.quarkus.io/s/jvm21) |
+                | :question: | Native Tests - Main | :question: |
+                """);
+    }
+
+    @Test
+    void testSharedLinks() {
+        List<String> pages = new BuildScansCheckRunRenderer().render(List.of(
+                build("Native Tests - Data1", false, "https://ge.quarkus.io/s/native"),
+                build("Native Tests - Data2", false, "https://ge.quarkus.io/s/native"),
+                build("Native Tests - Main", false, "https://ge.quarkus.io/s/main")));
+
+        assertThat(pages).containsExactly("""
+                | Status | Name | Build scan |
+                | :-:  | --  | :-:  |
+                | :heavy_check_mark: | Native Tests - Data1 | [:mag:][1] |
+                | :heavy_check_mark: | Native Tests - Data2 | [:mag:][1] |
+                | :heavy_check_mark: | Native Tests - Main | [:mag:](https://ge.quarkus.io/s/main) |
+
+                [1]: https://ge.quarkus.io/s/native
+                """);
+    }
+
+    @Test
+    void testPagination() {
+        List<BuildScanStatus> builds = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            // every third job shares its build scan with the previous one
+            int link = i % 3 == 2 ? i - 1 : i;
+            builds.add(build("Job " + i, i % 7 == 0, "https://ge.quarkus.io/s/" + "é".repeat(20) + link));
+        }
+
+        List<String> pages = new BuildScansCheckRunRenderer().render(builds);
+
+        assertThat(pages).hasSizeGreaterThan(1);
+
+        List<String> renderedJobNames = new ArrayList<>();
+        for (String page : pages) {
+            assertThat(BuildScansCheckRunRenderer.encodedSize(page)).isLessThanOrEqualTo(BuildScansCheckRunRenderer.MAX_TEXT_SIZE);
+
+            Matcher matcher = JOB_NAME.matcher(page);
+            while (matcher.find()) {
+                renderedJobNames.add(matcher.group(1));
+            }
+
+            // references are defined on the page using them
+            Matcher references = Pattern.compile("\\[:mag:\\]\\[([0-9]+)\\]").matcher(page);
+            while (references.find()) {
+                assertThat(page).contains("\n[" + references.group(1) + "]: https://");
+            }
+        }
+
+        assertThat(renderedJobNames).containsExactlyElementsOf(builds.stream().map(b -> b.jobName).toList());
+    }
+
+    @Test
+    void testSizeTracking() {
+        List<BuildScanStatus> builds = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            builds.add(build("Job " + i + " 🚀", i % 2 == 0, "https://ge.quarkus.io/s/" + (i / 2)));
+        }
+
+        String page = new BuildScansCheckRunRenderer().render(builds).get(0);
+
+        // a limit set to the exact size of the page doesn't split it, one byte less does
+        int size = BuildScansCheckRunRenderer.encodedSize(page);
+        assertThat(new BuildScansCheckRunRenderer(size).render(builds)).hasSize(1);
+        assertThat(new BuildScansCheckRunRenderer(size - 1).render(builds)).hasSize(2);
+    }
+
+    @Test
+    void testDetails() {
+        BuildScanDetails details = new BuildScanDetails();
+        details.buildDurationMillis = 754_000L;
+        details.tests = 150;
+        details.failedTests = 2;
+        details.cacheHitRatio = 2.0 / 3;
+
+        BuildScansCheckRunRenderer renderer = new BuildScansCheckRunRenderer(BuildScansCheckRunRenderer.MAX_TEXT_SIZE,
+                Map.of("https://ge.quarkus.io/s/jvm17", details));
+
+        List<String> pages = renderer.render(List.of(build("JVM Tests - JDK 17", true, "https://ge.quarkus.io/s/jvm17"),
+                build("JVM Tests - JDK 21", false, "https://ge.quarkus.io/s/jvm21")));
+
+        assertThat(pages).containsExactly("""
+                | Status | Name | Duration | Tests | Cache hits | Build scan |
+                | :-:  | --  | --:  | --:  | --:  | :-:  |
+                | ✖ | JVM Tests - JDK 17 | 12m 34s | 150 (2 failed) | 67% | [:mag:](https://ge.quarkus.io/s/jvm17) |
+                | :heavy_check_mark: | JVM Tests - JDK 21 | - | - | - | [:mag:](https://ge.quarkus.io/s/jvm21) |
+                """);
+    }
+
+    private static BuildScanStatus build(String jobName, Boolean buildFailure, String buildScanLink) {
+        BuildScanStatus build = new BuildScanStatus();
+        build.setJobName(jobName);
+        build.buildFailure = buildFailure;
+        build.buildScanLink = buildScanLink;
+        return build;
+    }
+}
@@ -0,0 +1,75 @@
+package io.quarkus.bot.develocity;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static io.quarkus.bot.github.ReplayServer.graphQLExchange;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Context;
+import io.quarkus.bot.concurrent.TaskScope;
+import io.quarkus.bot.develocity.BuildScansGitHubApi.ReportComment;
+import io.quarkus.bot.develocity.BuildScansGitHubApi.Target;
+import io.quarkus.bot.github.ReplayServer;
+import io.quarkus.bot.metrics.ActionMetrics;
+
+public class GraphQLBuildScansGitHubApiTest {
+
+    private static final String REPOSITORY = "quarkusio/quarkus";
+    private static final List<String> MARKERS = List.of("<!-- Quarkus-Bot/test-report -->");
+
+    @Test
+    void testFindReportCommentUpdatedSinceWorkflowRun() throws IOException {
+        try (ReplayServer server = ReplayServer.start(List.of(
+                // the comments updated before the workflow run was created are ignored
+                graphQLExchange(GraphQLBuildScansGitHubApi.LOAD_QUERY, """
+                        {"data":{
+                          "repository":{"id":"R_1","pullRequest":{"id":"PR_123","number":123,
+                            "url":"https://github.com/quarkusio/quarkus/pull/123",
+                            "comments":{"nodes":[
+                              {"id":"IC_1","body":"Looks good","updatedAt":"2024-05-01T10:30:00Z"},
+                              {"id":"IC_2","body":"Old report <!-- Quarkus-Bot/test-report -->",
+                                "updatedAt":"2024-05-01T09:00:00Z"}
+                            ],"pageInfo":{"hasNextPage":true,"endCursor":"c2"}}}},
+                          "resource":{"databaseId":456,"createdAt":"2024-05-01T10:00:00Z",
+                            "checkSuite":{"status":"COMPLETED","conclusion":"FAILURE","commit":{"oid":"abc"}}}}}"""),
+                // the report comment was created a long time ago and updated for the workflow run, it is on the second page
+                graphQLExchange(GraphQLBuildScansGitHubApi.COMMENTS_QUERY, """
+                        {"data":{"node":{"comments":{"nodes":[
+                          {"id":"IC_3","body":"Another comment","updatedAt":"2024-05-01T10:50:00Z"},
+                          {"id":"IC_4","body":"Edited","updatedAt":"2024-05-01T10:40:00Z"}
+                        ],"pageInfo":{"hasNextPage":true,"endCursor":"c4"}}}}}"""),
+                graphQLExchange(GraphQLBuildScansGitHubApi.COMMENTS_QUERY, """
+                        {"data":{"node":{"comments":{"nodes":[
+                          {"id":"IC_2","body":"New report <!-- Quarkus-Bot/test-report -->","updatedAt":"2024-05-01T10:35:00Z"}
+                        ],"pageInfo":{"hasNextPage":true,"endCursor":"c5"}}}}}""")))) {
+            Context context = server.context(REPOSITORY);
+            GraphQLBuildScansGitHubApi api = new GraphQLBuildScansGitHubApi(
+                    ReplayServer.clientFactory(new ObjectMapper(), new ActionMetrics())
+                            .createGraphQL(context, recording(new ArrayList<>()), () -> Map.of("github-token", "replayed")),
+                    REPOSITORY, "https://github.com");
+
+            Target target;
+            try (TaskScope scope = TaskScope.sequential()) {
+                target = api.load(123, 456, scope);
+            }
+
+            // the first lookup stops at the first comment updated before the workflow run was created
+            assertThat(api.findReportComment(target, MARKERS)).isEmpty();
+            assertThat(server.requests()).hasSize(1);
+
+            // the second lookup pages until it finds the report comment
+            assertThat(api.findReportComment(target, MARKERS)).map(ReportComment::body)
+                    .contains("New report <!-- Quarkus-Bot/test-report -->");
+            assertThat(server.requests()).hasSize(3);
+            assertThat(server.unmatchedRequests()).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package io.quarkus.bot.develocity;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.github.RecordingConnector.RecordedExchange;
+import io.quarkus.bot.github.ReplayServer;
+import io.quarkus.bot.metrics.ActionMetrics;
+import io.quarkus.bot.metrics.ActionMetrics.MetricsReport;
+
+/**
+ * Runs the action end to end against a recording of the GitHub API: the report comment shows up at the second poll.
+ * <p>
+ * The recording has been captured with the {@code github-record-file} input.
+ */
+public class InjectBuildScansReplayTest {
+
+    private static final String RECORDING = "replay/inject-build-scans.jsonl";
+
+    /**
+     * Loading the pull request and the workflow run, creating the check run, two polls with the abort checks in between and
+     * the update of the comment.
+     */
+    private static final int EXPECTED_REQUESTS = 9;
+
+    @TempDir
+    Path directory;
+
+    private Path buildMetadataFile;
+
+    @BeforeEach
+    void writeBuildMetadata() throws IOException {
+        buildMetadataFile = directory.resolve("build-metadata.json");
+        Files.writeString(buildMetadataFile, """
+                {
+                  "prNumber": 123,
+                  "builds": [
+                    { "jobName": "JVM Tests - JDK 17", "buildFailure": false, "buildScanLink": "https://ge.quarkus.io/s/jvm17" },
+                    { "jobName": "JVM Tests - JDK 21", "buildFailure": true, "buildScanLink": "https://ge.quarkus.io/s/jvm21" }
+                  ]
+                }
+                """);
+    }
+
+    @Test
+    void testReplay() throws IOException {
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING)) {
+            Run run = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(run.messages()).noneMatch(m -> m.startsWith("error") || m.startsWith("warning"));
+            assertThat(server.requests()).hasSize(EXPECTED_REQUESTS)
+                    .last().isEqualTo("PATCH /repos/quarkusio/quarkus/issues/comments/789");
+
+            // the abort checks are revalidated and don't count against the rate limit
+            assertThat(run.metrics().totalCalls).isEqualTo(EXPECTED_REQUESTS);
+            assertThat(run.metrics().totalNotModified).isEqualTo(2);
+            assertThat(run.metrics().writes).isEqualTo(1);
+
+            // one poll interval
+            assertThat(run.wallTime()).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+        }
+    }
+
+    @Test
+    void testLatency() throws IOException {
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING).withLatency(Duration.ofMillis(200))) {
+            Run run = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(server.requests()).hasSize(EXPECTED_REQUESTS);
+            // the calls are sequential so the latency adds up
+            assertThat(run.wallTime()).isGreaterThanOrEqualTo(Duration.ofMillis(1_000 + EXPECTED_REQUESTS * 200));
+            assertThat(run.metrics().totalCalls).isEqualTo(EXPECTED_REQUESTS);
+        }
+    }
+
+    @Test
+    void testRateLimit() throws IOException {
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING)
+                .withRateLimit("/repos/quarkusio/quarkus/issues/comments/", 1, Duration.ofSeconds(1))) {
+            Run run = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(run.messages()).noneMatch(m -> m.startsWith("error"));
+            // the update of the comment is retried after the delay requested by GitHub
+            assertThat(server.requests()).hasSize(EXPECTED_REQUESTS + 1)
+                    .endsWith("PATCH /repos/quarkusio/quarkus/issues/comments/789",
+                            "PATCH /repos/quarkusio/quarkus/issues/comments/789");
+            assertThat(run.metrics().writes).isEqualTo(1);
+            // one poll interval and the delay requested by GitHub
+            assertThat(run.wallTime()).isGreaterThanOrEqualTo(Duration.ofSeconds(2));
+        }
+    }
+
+    @Test
+    void testRecordingCanBeReplayed() throws IOException {
+        Path recordFile = directory.resolve("recording.jsonl");
+        List<String> requests;
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING)) {
+            run(server, Map.of("github-record-file", recordFile.toString()));
+            requests = server.requests();
+        }
+
+        List<RecordedExchange> exchanges;
+        try (InputStream recording = Files.newInputStream(recordFile)) {
+            exchanges = ReplayServer.read(recording);
+        }
+        assertThat(exchanges).hasSize(EXPECTED_REQUESTS);
+
+        try (ReplayServer server = ReplayServer.start(exchanges)) {
+            Run run = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(server.requests()).isEqualTo(requests);
+            assertThat(run.messages()).noneMatch(m -> m.startsWith("error") || m.startsWith("warning"));
+            assertThat(run.metrics().totalNotModified).isEqualTo(2);
+        }
+    }
+
+    @Test
+    void testSecondRunAgainstInjectedComment() throws IOException {
+        Path recordFile = directory.resolve("recording.jsonl");
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING)) {
+            run(server, Map.of("github-record-file", recordFile.toString()));
+        }
+        List<RecordedExchange> exchanges;
+        try (InputStream recording = Files.newInputStream(recordFile)) {
+            exchanges = ReplayServer.read(recording);
+        }
+
+        // the comment now has the links injected by the first run, and the second run creates a new check run
+        ObjectMapper objectMapper = new ObjectMapper();
+        RecordedExchange update = exchanges.remove(exchanges.size() - 1);
+        assertThat(update.method).isEqualTo("PATCH");
+        String injectedBody = objectMapper.readTree(update.requestBody).path("body").asText();
+        for (RecordedExchange exchange : exchanges) {
+            if (exchange.path.startsWith("/repos/quarkusio/quarkus/check-runs")) {
+                exchange.body = exchange.body.replace("/runs/24680", "/runs/24681");
+            } else if (exchange.path.startsWith("/repos/quarkusio/quarkus/issues/123/comments")
+                    && exchange.body.contains("789")) {
+                ArrayNode comments = (ArrayNode) objectMapper.readTree(exchange.body);
+                ((ObjectNode) comments.get(0)).put("body", injectedBody);
+                exchange.body = objectMapper.writeValueAsString(comments);
+            }
+        }
+
+        try (ReplayServer server = ReplayServer.start(exchanges)) {
+            Run run = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(run.messages()).noneMatch(m -> m.startsWith("error") || m.startsWith("warning"));
+            // the comment is up to date, it is not rewritten
+            assertThat(server.requests()).hasSize(EXPECTED_REQUESTS - 1).noneMatch(r -> r.startsWith("PATCH"));
+            assertThat(run.metrics().writes).isEqualTo(1);
+            assertThat(run.metrics().skippedWrites).isEqualTo(1);
+        }
+    }
+
+    private Run run(ReplayServer server) {
+        return run(server, Map.of());
+    }
+
+    private Run run(ReplayServer server, Map<String, String> additionalInputs) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ActionMetrics actionMetrics = new ActionMetrics();
+
+        InjectBuildScansAction action = new InjectBuildScansAction();
+        action.objectMapper = objectMapper;
+        action.actionMetrics = actionMetrics;
+        action.gitHubClientFactory = ReplayServer.clientFactory(objectMapper, actionMetrics);
+
+        Map<String, String> inputs = new HashMap<>(additionalInputs);
+        inputs.put("github-token", "replayed");
+        inputs.put("action", "inject-build-scans");
+        inputs.put("workflow-run-id", "456");
+        inputs.put("build-metadata-file-path", buildMetadataFile.toString());
+        inputs.put("report-comment-poll-delay", "0");
+        inputs.put("report-comment-poll-interval", "1");
+        inputs.put("report-comment-timeout", "30");
+
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        long start = System.nanoTime();
+        action.injectBuildScans(server.context("quarkusio/quarkus"), recording(messages), inputs(inputs));
+
+        return new Run(Duration.ofNanos(System.nanoTime() - start), messages, actionMetrics.getReport("inject-build-scans"));
+    }
+
+    private static Inputs inputs(Map<String, String> inputs) {
+        return () -> inputs;
+    }
+
+    private record Run(Duration wallTime, List<String> messages, MetricsReport metrics) {
+    }
+}
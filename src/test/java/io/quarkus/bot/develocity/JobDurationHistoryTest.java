@@ -0,0 +1,107 @@
+package io.quarkus.bot.develocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.quarkus.bot.develocity.JobDurationHistory.DurationStats;
+import io.quarkus.bot.develocity.JobDurationHistory.JobRun;
+import io.quarkus.bot.develocity.JobDurationHistory.Outcome;
+
+public class JobDurationHistoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testStats() throws IOException {
+        Path file = directory.resolve("history.bin");
+        JobDurationHistory history = new JobDurationHistory(file, 10);
+
+        assertThat(history.update(1, Map.of("JVM Tests", success(100)))).isEmpty();
+        for (int run = 2; run <= 10; run++) {
+            history.update(run, Map.of("JVM Tests", success(run * 100), "Native Tests", new JobRun(1, Outcome.FAILURE)));
+        }
+
+        Map<String, DurationStats> stats = history.update(11, Map.of("JVM Tests", success(5_000)));
+        // the failed runs are not part of the statistics
+        assertThat(stats).containsOnlyKeys("JVM Tests");
+        assertThat(stats.get("JVM Tests")).isEqualTo(new DurationStats(10, 500, 900));
+
+        // running again for the same workflow run doesn't record it twice and it is not part of its own statistics
+        assertThat(history.update(11, Map.of("JVM Tests", success(5_000))).get("JVM Tests"))
+                .isEqualTo(new DurationStats(10, 500, 900));
+
+        // the window only keeps the last runs
+        assertThat(history.update(12, Map.of()).get("JVM Tests")).isEqualTo(new DurationStats(10, 600, 1_000));
+    }
+
+    @Test
+    void testTruncatedRecord() throws IOException {
+        Path file = directory.resolve("history.bin");
+        JobDurationHistory history = new JobDurationHistory(file, 10);
+
+        history.update(1, Map.of("JVM Tests", success(100)));
+        history.update(2, Map.of("JVM Tests", success(200)));
+        long size = Files.size(file);
+
+        // an interrupted run left half a record behind
+        Files.write(file, new byte[] { 'R', 0, 0 }, StandardOpenOption.APPEND);
+
+        assertThat(history.update(3, Map.of("JVM Tests", success(300))).get("JVM Tests").samples()).isEqualTo(2);
+        assertThat(Files.size(file)).isEqualTo(size + 18);
+        assertThat(history.update(4, Map.of()).get("JVM Tests").samples()).isEqualTo(3);
+    }
+
+    @Test
+    void testCompaction() throws IOException {
+        Path file = directory.resolve("history.bin");
+        JobDurationHistory history = new JobDurationHistory(file, 5);
+
+        long maxSize = 0;
+        for (int run = 1; run <= 1_000; run++) {
+            Map<String, DurationStats> stats = history.update(run,
+                    Map.of("JVM Tests", success(run), "Native Tests", success(2 * run)));
+            maxSize = Math.max(maxSize, Files.size(file));
+
+            // every run is kept across the compactions: the window is always the previous 5 runs
+            if (run > 5) {
+                assertThat(stats.get("JVM Tests")).as("Run %d", run).isEqualTo(new DurationStats(5, run - 3, run - 1));
+                assertThat(stats.get("Native Tests")).as("Run %d", run)
+                        .isEqualTo(new DurationStats(5, 2 * (run - 3), 2 * (run - 1)));
+            }
+        }
+
+        // the file doesn't grow with the number of runs
+        assertThat(maxSize).isLessThan(1_000);
+
+        // the compaction keeps track of the runs already recorded, running the action again doesn't record them twice
+        for (int rerun = 0; rerun < 30; rerun++) {
+            history.update(1_000, Map.of("JVM Tests", success(5_000), "Native Tests", success(5_000)));
+        }
+        Map<String, DurationStats> stats = history.update(1_001, Map.of());
+        assertThat(stats.get("JVM Tests")).isEqualTo(new DurationStats(5, 998, 1_000));
+        assertThat(stats.get("Native Tests")).isEqualTo(new DurationStats(5, 1_996, 2_000));
+    }
+
+    @Test
+    void testRegression() {
+        DurationStats stats = new DurationStats(10, 1_000, 1_100);
+
+        assertThat(JobDurationHistory.isRegression(stats, 1_200, 20)).isFalse();
+        assertThat(JobDurationHistory.isRegression(stats, 1_201, 20)).isTrue();
+        assertThat(JobDurationHistory.isRegression(new DurationStats(JobDurationHistory.MIN_SAMPLES - 1, 1_000, 1_100),
+                5_000, 20)).isFalse();
+    }
+
+    private static JobRun success(long durationMillis) {
+        return new JobRun(durationMillis, Outcome.SUCCESS);
+    }
+}
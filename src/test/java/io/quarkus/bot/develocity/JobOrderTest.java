@@ -0,0 +1,55 @@
+package io.quarkus.bot.develocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class JobOrderTest {
+
+    @Test
+    void testDefaultRules() {
+        JobOrder jobOrder = JobOrder.defaults();
+
+        assertThat(jobOrder.getOrder("Initial JDK 17 Build")).isEqualTo(1);
+        assertThat(jobOrder.getOrder("Calculate Test Jobs")).isEqualTo(2);
+        assertThat(jobOrder.getOrder("JVM Tests - JDK 17")).isEqualTo(11);
+        assertThat(jobOrder.getOrder("JVM Tests - JDK 17 Windows")).isEqualTo(12);
+        assertThat(jobOrder.getOrder("Native Tests - Windows - RESTEasy Jackson")).isEqualTo(82);
+        assertThat(jobOrder.getOrder("Native Tests - Main")).isEqualTo(81);
+        assertThat(jobOrder.getOrder("JVM Tests")).isEqualTo(200);
+        assertThat(jobOrder.getOrder("Something else")).isEqualTo(200);
+        assertThat(jobOrder.getOrder("")).isEqualTo(200);
+        assertThat(jobOrder.getOrder(null)).isEqualTo(200);
+    }
+
+    @Test
+    void testFirstMatchingRuleWins() throws IOException {
+        JobOrder jobOrder = read("""
+                {
+                  "defaultOrder": 99,
+                  "rules": [
+                    { "prefix": "Tests - Linux", "order": 1 },
+                    { "prefix": "Tests", "contains": "Slow", "order": 3 },
+                    { "prefix": "Tests - ", "order": 2 },
+                    { "contains": "Docs", "order": 50 }
+                  ]
+                }
+                """);
+
+        assertThat(jobOrder.getOrder("Tests - Linux Slow")).isEqualTo(1);
+        assertThat(jobOrder.getOrder("Tests - macOS Slow")).isEqualTo(3);
+        assertThat(jobOrder.getOrder("Tests - macOS")).isEqualTo(2);
+        assertThat(jobOrder.getOrder("Build Docs")).isEqualTo(50);
+        assertThat(jobOrder.getOrder("Build")).isEqualTo(99);
+    }
+
+    private static JobOrder read(String rules) throws IOException {
+        return JobOrder.read(new ObjectMapper(), new ByteArrayInputStream(rules.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,110 @@
+package io.quarkus.bot.develocity;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.concurrent.TaskScope;
+import io.quarkus.bot.develocity.BuildScansGitHubApi.ReportComment;
+import io.quarkus.bot.develocity.BuildScansGitHubApi.Target;
+import io.quarkus.bot.develocity.InjectBuildScansAction.PullRequestReportIsCreated;
+
+public class PullRequestReportIsCreatedTest {
+
+    private static final Target TARGET = new Target(123, "https://github.com/quarkusio/quarkus/pull/123", 456, new Date(),
+            "abcdef", false);
+
+    @Test
+    void testReportComment() throws Exception {
+        FakeGitHubApi gitHubApi = new FakeGitHubApi();
+        PullRequestReportIsCreated condition = new PullRequestReportIsCreated(gitHubApi, TARGET);
+
+        gitHubApi.abortReasons.add(Optional.empty());
+        assertThat(condition.call()).isFalse();
+
+        // the report is used even if it is not worth waiting anymore
+        gitHubApi.reportComment = Optional.of(new FakeReportComment());
+        gitHubApi.abortReasons.add(Optional.of("the pull request has been closed"));
+        assertThat(condition.call()).isTrue();
+        assertThat(condition.getReportComment()).isPresent();
+        assertThat(condition.getAbortReason()).isEmpty();
+    }
+
+    @Test
+    void testAbort() throws Exception {
+        FakeGitHubApi gitHubApi = new FakeGitHubApi();
+        PullRequestReportIsCreated condition = new PullRequestReportIsCreated(gitHubApi, TARGET);
+
+        gitHubApi.abortReasons.add(Optional.empty());
+        assertThat(condition.call()).isFalse();
+
+        // a failing check doesn't stop the wait
+        gitHubApi.abortReasons.add(null);
+        assertThat(condition.call()).isFalse();
+
+        gitHubApi.abortReasons.add(Optional.of("the pull request has a new head commit 123456"));
+        assertThat(condition.call()).isTrue();
+        assertThat(condition.getReportComment()).isEmpty();
+        assertThat(condition.getAbortReason()).contains("the pull request has a new head commit 123456");
+    }
+
+    private static class FakeGitHubApi implements BuildScansGitHubApi {
+
+        private Optional<ReportComment> reportComment = Optional.empty();
+
+        /**
+         * A null reason simulates a failing check.
+         */
+        private final Deque<Optional<String>> abortReasons = new LinkedList<>();
+
+        @Override
+        public Target load(int prNumber, long workflowRunId, TaskScope scope) {
+            return TARGET;
+        }
+
+        @Override
+        public String createCheckRun(Target target, String name, String externalId, String title, String summary,
+                String text) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<String> findCheckRun(Target target, String name, String externalId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Optional<ReportComment> findReportComment(Target target, List<String> markers) {
+            assertThat(markers).contains("<!-- Build-Reporter/workflow-run-id:456 -->");
+            return reportComment;
+        }
+
+        @Override
+        public Optional<String> findAbortReason(Target target) throws IOException {
+            Optional<String> abortReason = abortReasons.poll();
+            if (abortReason == null) {
+                throw new IOException("Server Error");
+            }
+            return abortReason;
+        }
+    }
+
+    private static class FakeReportComment implements ReportComment {
+
+        @Override
+        public String body() {
+            return "";
+        }
+
+        @Override
+        public void update(String body) {
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package io.quarkus.bot.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class CommentHashTest {
+
+    private static final CommentHash COMMENT_HASH = new CommentHash("Quarkus-Bot/maintained-comment-hash");
+
+    @Test
+    void testHash() {
+        assertThat(CommentHash.hash("Hello")).hasSize(16).isEqualTo(CommentHash.hash("Hello"));
+        assertThat(CommentHash.hash("Hello")).isNotEqualTo(CommentHash.hash("Hello!"));
+    }
+
+    @Test
+    void testMark() {
+        String hash = CommentHash.hash("Hello");
+        String marked = COMMENT_HASH.mark("Hello", hash);
+
+        assertThat(marked).isEqualTo("Hello\n<!-- Quarkus-Bot/maintained-comment-hash:" + hash + " -->");
+        assertThat(COMMENT_HASH.isUpToDate(marked, hash)).isTrue();
+        assertThat(COMMENT_HASH.isUpToDate("Hello", hash)).isFalse();
+        assertThat(COMMENT_HASH.isUpToDate(null, hash)).isFalse();
+
+        // the previous hash is replaced
+        String newHash = CommentHash.hash("Hello!");
+        String remarked = COMMENT_HASH.mark(marked, newHash);
+        assertThat(remarked).isEqualTo("Hello\n<!-- Quarkus-Bot/maintained-comment-hash:" + newHash + " -->");
+        assertThat(COMMENT_HASH.isUpToDate(remarked, hash)).isFalse();
+        assertThat(COMMENT_HASH.isUpToDate(remarked, newHash)).isTrue();
+    }
+}
@@ -0,0 +1,69 @@
+package io.quarkus.bot.github;
+
+import static io.quarkus.bot.github.FakeGitHubConnector.request;
+import static io.quarkus.bot.github.FakeGitHubConnector.response;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+public class ConditionalRequestsConnectorTest {
+
+    private static final String URL = "https://api.github.com/repos/quarkusio/quarkus";
+    private static final Map<String, List<String>> HEADERS = Map.of("Accept", List.of("application/vnd.github+json"));
+
+    private final List<String> ifNoneMatchHeaders = new ArrayList<>();
+
+    @Test
+    void testRevalidation() throws IOException {
+        ConditionalRequestsConnector connector = new ConditionalRequestsConnector(new FakeGitHubConnector(this::handle));
+
+        GitHubConnectorResponse first = connector.send(request("GET", URL, HEADERS));
+        assertThat(first.statusCode()).isEqualTo(200);
+        assertThat(read(first)).isEqualTo("{\"name\":\"quarkus\"}");
+        assertThat(ifNoneMatchHeaders).containsExactly((String) null);
+
+        GitHubConnectorResponse second = connector.send(request("GET", URL, HEADERS));
+        assertThat(second.statusCode()).isEqualTo(200);
+        assertThat(read(second)).isEqualTo("{\"name\":\"quarkus\"}");
+        assertThat(second.header("X-RateLimit-Remaining")).isEqualTo("4999");
+        assertThat(ifNoneMatchHeaders).containsExactly(null, "\"etag-1\"");
+    }
+
+    @Test
+    void testNonGetRequestsAreNotConditional() throws IOException {
+        ConditionalRequestsConnector connector = new ConditionalRequestsConnector(new FakeGitHubConnector(this::handle));
+
+        connector.send(request("PATCH", URL, HEADERS));
+        connector.send(request("PATCH", URL, HEADERS));
+
+        assertThat(ifNoneMatchHeaders).containsExactly(null, null);
+    }
+
+    private GitHubConnectorResponse handle(GitHubConnectorRequest request) {
+        String ifNoneMatch = request.header("If-None-Match");
+        ifNoneMatchHeaders.add(ifNoneMatch);
+
+        if ("\"etag-1\"".equals(ifNoneMatch)) {
+            return response(request, 304, Map.of("ETag", List.of("\"etag-1\""),
+                    "X-RateLimit-Remaining", List.of("4999")), "");
+        }
+
+        return response(request, 200, Map.of("ETag", List.of("\"etag-1\""),
+                "X-RateLimit-Remaining", List.of("5000")), "{\"name\":\"quarkus\"}");
+    }
+
+    private static String read(GitHubConnectorResponse response) throws IOException {
+        try (InputStream is = response.bodyStream()) {
+            return new String(is.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
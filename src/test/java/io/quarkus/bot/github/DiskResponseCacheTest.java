@@ -0,0 +1,80 @@
+package io.quarkus.bot.github;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class DiskResponseCacheTest {
+
+    private static final String REPOSITORY_KEY = "https://api.github.com/repos/quarkusio/quarkus application/vnd.github+json";
+    private static final String PULL_REQUEST_KEY = "https://api.github.com/repos/quarkusio/quarkus/pulls/1 application/vnd.github+json";
+
+    @TempDir
+    Path cacheDirectory;
+
+    @Test
+    void testResponsesSurviveAcrossRuns() throws IOException {
+        new DiskResponseCache(cacheDirectory, 1024 * 1024).put(REPOSITORY_KEY, response(REPOSITORY_KEY, "{\"name\":\"quarkus\"}"));
+
+        CachedResponse response = new DiskResponseCache(cacheDirectory, 1024 * 1024).get(REPOSITORY_KEY);
+
+        assertThat(response).isNotNull();
+        assertThat(response.etag()).isEqualTo("\"etag-1\"");
+        assertThat(response.lastModified()).isNull();
+        assertThat(response.statusCode()).isEqualTo(200);
+        assertThat(response.headers().get("x-ratelimit-limit")).containsExactly("5000");
+        assertThat(new String(response.body(), StandardCharsets.UTF_8)).isEqualTo("{\"name\":\"quarkus\"}");
+    }
+
+    @Test
+    void testLeastRecentlyUsedResponsesAreEvicted() throws IOException, InterruptedException {
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, 1024 * 1024);
+        cache.put(REPOSITORY_KEY, response(REPOSITORY_KEY, "a".repeat(400 * 1024)));
+        Thread.sleep(10);
+        cache.put(PULL_REQUEST_KEY, response(PULL_REQUEST_KEY, "b".repeat(400 * 1024)));
+        Thread.sleep(10);
+        // the repository is now the most recently used
+        assertThat(cache.get(REPOSITORY_KEY)).isNotNull();
+        Thread.sleep(10);
+
+        String commentsKey = "https://api.github.com/repos/quarkusio/quarkus/issues/1/comments application/vnd.github+json";
+        cache.put(commentsKey, response(commentsKey, "c".repeat(400 * 1024)));
+
+        assertThat(cache.size()).isLessThanOrEqualTo(1024 * 1024);
+        assertThat(cache.get(PULL_REQUEST_KEY)).isNull();
+        assertThat(cache.get(REPOSITORY_KEY)).isNotNull();
+        assertThat(cache.get(commentsKey)).isNotNull();
+
+        try (var files = Files.list(cacheDirectory)) {
+            assertThat(files).hasSize(2);
+        }
+    }
+
+    @Test
+    void testCorruptedResponsesAreDropped() throws IOException {
+        DiskResponseCache cache = new DiskResponseCache(cacheDirectory, 1024 * 1024);
+        cache.put(REPOSITORY_KEY, response(REPOSITORY_KEY, "{}"));
+
+        try (var files = Files.list(cacheDirectory)) {
+            Files.writeString(files.findFirst().orElseThrow(), "garbage");
+        }
+
+        assertThat(cache.get(REPOSITORY_KEY)).isNull();
+        try (var files = Files.list(cacheDirectory)) {
+            assertThat(files).isEmpty();
+        }
+    }
+
+    private static CachedResponse response(String key, String body) {
+        return new CachedResponse(key, "\"etag-1\"", null, 200, Map.of("X-RateLimit-Limit", List.of("5000")),
+                body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,115 @@
+package io.quarkus.bot.github;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+/**
+ * A connector answering from memory, to test the connectors stacked on top of it without a server.
+ * <p>
+ * It is also used by the benchmarks, so it doesn't keep the requests: handlers record what they need.
+ */
+public class FakeGitHubConnector implements GitHubConnector {
+
+    private final Handler handler;
+    private final AtomicInteger calls = new AtomicInteger();
+
+    public FakeGitHubConnector(Handler handler) {
+        this.handler = handler;
+    }
+
+    @Override
+    public GitHubConnectorResponse send(GitHubConnectorRequest request) throws IOException {
+        calls.incrementAndGet();
+        return handler.handle(request);
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+
+    public static GitHubConnectorRequest request(String method, String url) {
+        return request(method, url, Map.of());
+    }
+
+    public static GitHubConnectorRequest request(String method, String url, Map<String, List<String>> headers) {
+        try {
+            return new FakeRequest(method, new URL(url), headers);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    public static GitHubConnectorResponse response(GitHubConnectorRequest request, int statusCode,
+            Map<String, List<String>> headers, String body) {
+        return response(request, statusCode, headers, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static GitHubConnectorResponse response(GitHubConnectorRequest request, int statusCode,
+            Map<String, List<String>> headers, byte[] body) {
+        return new FakeResponse(request, statusCode, headers, body);
+    }
+
+    @FunctionalInterface
+    public interface Handler {
+
+        GitHubConnectorResponse handle(GitHubConnectorRequest request) throws IOException;
+    }
+
+    private static class FakeResponse extends GitHubConnectorResponse {
+
+        private final byte[] body;
+
+        private FakeResponse(GitHubConnectorRequest request, int statusCode, Map<String, List<String>> headers, byte[] body) {
+            super(request, statusCode, headers);
+            this.body = body;
+        }
+
+        @Override
+        public InputStream bodyStream() {
+            return new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    private record FakeRequest(String method, URL url, Map<String, List<String>> allHeaders) implements GitHubConnectorRequest {
+
+        @Override
+        public String header(String name) {
+            for (Map.Entry<String, List<String>> header : allHeaders.entrySet()) {
+                if (header.getKey().equalsIgnoreCase(name)) {
+                    return header.getValue().isEmpty() ? null : header.getValue().get(0);
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public String contentType() {
+            return header("Content-Type");
+        }
+
+        @Override
+        public InputStream body() {
+            return null;
+        }
+
+        @Override
+        public boolean hasBody() {
+            return false;
+        }
+    }
+}
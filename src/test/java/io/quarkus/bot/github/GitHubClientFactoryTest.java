@@ -0,0 +1,36 @@
+package io.quarkus.bot.github;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.metrics.ActionMetrics;
+
+public class GitHubClientFactoryTest {
+
+    @Test
+    void testUnusableHttpCacheDirectory(@TempDir Path directory) throws IOException {
+        Path notADirectory = Files.writeString(directory.resolve("http-cache"), "");
+        List<String> messages = new ArrayList<>();
+
+        try (ReplayServer server = ReplayServer.start(List.of())) {
+            ReplayServer.clientFactory(new ObjectMapper(), new ActionMetrics()).create(server.context("quarkusio/quarkus"),
+                    recording(messages), () -> Map.of("github-token", "replayed", "http-cache-directory", notADirectory.toString()));
+        }
+
+        // the cache is only an optimization
+        assertThat(messages).singleElement().asString()
+                .startsWith("warning: Unable to use " + notADirectory + " as HTTP cache, falling back to memory");
+    }
+}
@@ -0,0 +1,77 @@
+package io.quarkus.bot.github;
+
+import static io.quarkus.bot.github.FakeGitHubConnector.request;
+import static io.quarkus.bot.github.FakeGitHubConnector.response;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+import io.quarkus.bot.metrics.ActionMetrics;
+import io.quarkus.bot.metrics.ActionMetrics.EndpointReport;
+import io.quarkus.bot.metrics.ActionMetrics.MetricsReport;
+
+public class InstrumentedConnectorTest {
+
+    private static final String BODY = "{\"name\":\"quarkus\"}";
+
+    @Test
+    void testEndpoint() {
+        assertThat(InstrumentedConnector.getEndpoint(request("GET",
+                "https://api.github.com/repos/quarkusio/quarkus/issues/123/comments?since=2024-01-01T00:00:00Z")))
+                .isEqualTo("GET /repos/{owner}/{repo}/issues/{id}/comments");
+        assertThat(InstrumentedConnector.getEndpoint(request("POST", "https://api.github.com/graphql")))
+                .isEqualTo("POST /graphql");
+    }
+
+    @Test
+    void testRecordedCalls() throws IOException {
+        ActionMetrics metrics = new ActionMetrics();
+        AtomicInteger remaining = new AtomicInteger(5000);
+        FakeGitHubConnector fakeConnector = new FakeGitHubConnector(request -> {
+            Map<String, List<String>> headers = Map.of("ETag", List.of("\"" + request.url().getPath() + "\""),
+                    "X-RateLimit-Limit", List.of("5000"),
+                    "X-RateLimit-Remaining", List.of(String.valueOf(remaining.decrementAndGet())),
+                    "X-RateLimit-Resource", List.of("core"));
+
+            if (request.header("If-None-Match") != null) {
+                return response(request, 304, headers, "");
+            }
+            return response(request, 200, headers, BODY);
+        });
+        GitHubConnector connector = new ConditionalRequestsConnector(new InstrumentedConnector(fakeConnector, metrics));
+
+        for (int i = 0; i < 3; i++) {
+            try (GitHubConnectorResponse response = connector
+                    .send(request("GET", "https://api.github.com/repos/quarkusio/quarkus/pulls/" + (100 + i % 2)))) {
+                try (InputStream body = response.bodyStream()) {
+                    assertThat(new String(body.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(BODY);
+                }
+            }
+        }
+
+        MetricsReport report = metrics.getReport("test");
+
+        assertThat(report.totalCalls).isEqualTo(3);
+        assertThat(report.totalNotModified).isEqualTo(1);
+        // the body of the 304 is served from the cache
+        assertThat(report.totalBytes).isEqualTo(2 * BODY.length());
+
+        assertThat(report.endpoints).hasSize(1);
+        EndpointReport endpoint = report.endpoints.get(0);
+        assertThat(endpoint.endpoint).isEqualTo("GET /repos/{owner}/{repo}/pulls/{id}");
+        assertThat(endpoint.latencyHistogram.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(3);
+
+        assertThat(report.rateLimits).containsOnlyKeys("core");
+        assertThat(report.rateLimits.get("core").remaining).isEqualTo(4997);
+        assertThat(report.rateLimits.get("core").limit).isEqualTo(5000);
+    }
+}
@@ -0,0 +1,26 @@
+package io.quarkus.bot.github;
+
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import io.quarkiverse.githubaction.Commands;
+
+/**
+ * Commands recording each call as {@code method: first argument}, e.g. {@code error: Unable to update the comment}.
+ */
+public final class RecordingCommands {
+
+    private RecordingCommands() {
+    }
+
+    /**
+     * @param messages where the calls are recorded, it should be synchronized if the commands are used concurrently
+     */
+    public static Commands recording(List<String> messages) {
+        return (Commands) Proxy.newProxyInstance(RecordingCommands.class.getClassLoader(), new Class<?>[] { Commands.class },
+                (proxy, method, args) -> {
+                    messages.add(method.getName() + (args != null && args.length > 0 ? ": " + args[0] : ""));
+                    return null;
+                });
+    }
+}
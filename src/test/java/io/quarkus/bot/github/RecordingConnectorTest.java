@@ -0,0 +1,80 @@
+package io.quarkus.bot.github;
+
+import static io.quarkus.bot.github.ReplayServer.exchange;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.kohsuke.github.GitHub;
+import org.kohsuke.github.GitHubBuilder;
+import org.kohsuke.github.connector.GitHubConnector;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkus.bot.github.RecordingConnector.RecordedExchange;
+
+public class RecordingConnectorTest {
+
+    private static final String TOKEN = "ghs_secret";
+    private static final String QUERY = "query($owner: String!, $name: String!) "
+            + "{ repository(owner: $owner, name: $name) { id } }";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testRecordAndReplay(@TempDir Path directory) throws IOException {
+        Path recording = directory.resolve("recording.jsonl");
+
+        try (ReplayServer gitHubApi = ReplayServer.start(List.of(
+                exchange("GET", "/repos/quarkusio/quarkus", null, """
+                        {"id":139914932,"name":"quarkus","full_name":"quarkusio/quarkus","owner":{"login":"quarkusio"},
+                        "url":"https://api.github.com/repos/quarkusio/quarkus"}"""),
+                exchange("POST", "/graphql",
+                        "{\"query\":\"" + QUERY + "\",\"variables\":{\"owner\":\"quarkusio\",\"name\":\"quarkus\"}}",
+                        "{\"data\":{\"repository\":{\"id\":\"R_kgDOCFbcFA\"}}}")))) {
+            GitHubConnector connector = new RecordingConnector(GitHubConnector.DEFAULT, objectMapper, recording);
+            callGitHub(gitHubApi, connector);
+        }
+
+        assertThat(Files.readString(recording)).doesNotContain(TOKEN);
+
+        List<RecordedExchange> exchanges;
+        try (InputStream recordingStream = Files.newInputStream(recording)) {
+            exchanges = ReplayServer.read(recordingStream);
+        }
+        assertThat(exchanges).extracting(e -> e.method + " " + e.path)
+                .containsExactly("GET /repos/quarkusio/quarkus", "POST /graphql");
+        assertThat(exchanges.get(1).requestBody).contains("repository(owner: $owner");
+
+        // the recording can be replayed by another server
+        try (ReplayServer replay = ReplayServer.start(exchanges)) {
+            callGitHub(replay, GitHubConnector.DEFAULT);
+
+            assertThat(replay.unmatchedRequests()).isEmpty();
+            assertThat(replay.requests()).hasSize(2);
+        }
+    }
+
+    private void callGitHub(ReplayServer server, GitHubConnector connector) throws IOException {
+        GitHub gitHub = new GitHubBuilder()
+                .withEndpoint(server.url())
+                .withAppInstallationToken(TOKEN)
+                .withConnector(connector)
+                .build();
+        assertThat(gitHub.getRepository("quarkusio/quarkus").getFullName()).isEqualTo("quarkusio/quarkus");
+
+        GitHubGraphQLClient graphQLClient = new GitHubGraphQLClient(connector, objectMapper, new URL(server.url() + "/graphql"),
+                TOKEN);
+        // the order of the variables is not significant
+        assertThat(graphQLClient.execute(QUERY, Map.of("name", "quarkus", "owner", "quarkusio"))
+                .path("repository").path("id").asText()).isEqualTo("R_kgDOCFbcFA");
+    }
+}
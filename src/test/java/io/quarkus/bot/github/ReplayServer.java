@@ -0,0 +1,368 @@
+package io.quarkus.bot.github;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.quarkiverse.githubaction.Context;
+import io.quarkus.bot.github.RecordingConnector.RecordedExchange;
+import io.quarkus.bot.metrics.ActionMetrics;
+
+/**
+ * Replays exchanges recorded by {@link RecordingConnector} from a local server, so that the actions can be run end to end
+ * offline.
+ * <p>
+ * Requests are matched on their method, their path and their body. As bodies might contain dates, a GraphQL request falls
+ * back to matching on its query without the variables and a REST request on its path. When a request is sent several
+ * times, e.g. while polling, the recorded responses are served in order and the last one is repeated. Conditional requests
+ * are answered with a {@code 304 Not Modified} if the response didn't change.
+ * <p>
+ * Latency and rate limits can be injected to check how the actions cope with them.
+ */
+public class ReplayServer implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper()
+            .configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+
+    private final Map<String, Responses> exactResponses = new HashMap<>();
+    private final Map<String, Responses> looseResponses = new HashMap<>();
+    private final List<String> requests = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> unmatchedRequests = Collections.synchronizedList(new ArrayList<>());
+    private final Map<String, RateLimit> rateLimits = new HashMap<>();
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final String url;
+    private volatile Duration latency = Duration.ZERO;
+
+    private ReplayServer(List<RecordedExchange> exchanges) throws IOException {
+        Map<String, RecordedExchange> lastFullResponses = new HashMap<>();
+        for (RecordedExchange exchange : exchanges) {
+            String looseKey = looseKey(exchange.method, exchange.path, exchange.requestBody);
+
+            if (exchange.status == 304) {
+                // the full response is served and the request of the client decides whether it is modified
+                exchange = lastFullResponses.getOrDefault(looseKey, exchange);
+            } else {
+                lastFullResponses.put(looseKey, exchange);
+            }
+
+            exactResponses.computeIfAbsent(exactKey(exchange.method, exchange.path, exchange.requestBody),
+                    k -> new Responses()).add(exchange);
+            looseResponses.computeIfAbsent(looseKey, k -> new Responses()).add(exchange);
+        }
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public static ReplayServer start(List<RecordedExchange> exchanges) throws IOException {
+        return new ReplayServer(exchanges);
+    }
+
+    /**
+     * @param resource a recording, one exchange per line
+     */
+    public static ReplayServer startFromResource(String resource) throws IOException {
+        InputStream recording = ReplayServer.class.getClassLoader().getResourceAsStream(resource);
+        if (recording == null) {
+            throw new IOException("Unable to find recording " + resource);
+        }
+        return start(read(recording));
+    }
+
+    public static List<RecordedExchange> read(InputStream recording) throws IOException {
+        List<RecordedExchange> exchanges = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(recording, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    exchanges.add(OBJECT_MAPPER.readValue(line, RecordedExchange.class));
+                }
+            }
+        }
+        return exchanges;
+    }
+
+    /**
+     * A successful JSON exchange with the public GitHub API, to write a scenario by hand.
+     */
+    public static RecordedExchange exchange(String method, String path, String requestBody, String body) {
+        RecordedExchange exchange = new RecordedExchange();
+        exchange.method = method;
+        exchange.path = path;
+        exchange.apiUrl = "https://api.github.com";
+        exchange.requestBody = requestBody;
+        exchange.status = 200;
+        exchange.headers = Map.of("Content-Type", List.of("application/json; charset=utf-8"));
+        exchange.body = body;
+        return exchange;
+    }
+
+    /**
+     * A successful GraphQL exchange, matched on its query whatever the variables.
+     */
+    public static RecordedExchange graphQLExchange(String query, String body) {
+        try {
+            return exchange("POST", "/graphql", OBJECT_MAPPER.writeValueAsString(Map.of("query", query)), body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A client factory as built by CDI, the replayed URLs are provided by the {@link #context(String)}.
+     */
+    public static GitHubClientFactory clientFactory(ObjectMapper objectMapper, ActionMetrics actionMetrics) {
+        GitHubClientFactory clientFactory = new GitHubClientFactory();
+        clientFactory.objectMapper = objectMapper;
+        clientFactory.actionMetrics = actionMetrics;
+        return clientFactory;
+    }
+
+    /**
+     * Each request is delayed by the given latency.
+     */
+    public ReplayServer withLatency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /**
+     * The first {@code times} requests whose path starts with the given prefix are answered with a secondary rate limit.
+     */
+    public ReplayServer withRateLimit(String pathPrefix, int times, Duration retryAfter) {
+        synchronized (rateLimits) {
+            rateLimits.put(pathPrefix, new RateLimit(new AtomicInteger(times), retryAfter));
+        }
+        return this;
+    }
+
+    public String url() {
+        return url;
+    }
+
+    /**
+     * A GitHub Actions context pointing to this server.
+     */
+    public Context context(String repository) {
+        return (Context) Proxy.newProxyInstance(ReplayServer.class.getClassLoader(), new Class<?>[] { Context.class },
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getGitHubApiUrl" -> url;
+                    case "getGithubGraphQLUrl" -> url + "/graphql";
+                    case "getGitHubServerUrl" -> "https://github.com";
+                    case "getGitHubRepository" -> repository;
+                    case "isGitHubRefProtected" -> false;
+                    default -> null;
+                });
+    }
+
+    /**
+     * @return the requests received, as {@code METHOD path}, including the ones answered with a rate limit
+     */
+    public List<String> requests() {
+        synchronized (requests) {
+            return List.copyOf(requests);
+        }
+    }
+
+    /**
+     * @return the requests for which there was no recorded exchange
+     */
+    public List<String> unmatchedRequests() {
+        synchronized (unmatchedRequests) {
+            return List.copyOf(unmatchedRequests);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange httpExchange) throws IOException {
+        try (httpExchange) {
+            String method = httpExchange.getRequestMethod();
+            String path = httpExchange.getRequestURI().getRawPath()
+                    + (httpExchange.getRequestURI().getRawQuery() != null ? "?" + httpExchange.getRequestURI().getRawQuery()
+                            : "");
+            String body;
+            try (InputStream bodyStream = httpExchange.getRequestBody()) {
+                byte[] bytes = bodyStream.readAllBytes();
+                body = bytes.length > 0 ? new String(bytes, StandardCharsets.UTF_8) : null;
+            }
+            requests.add(method + " " + path);
+
+            if (!latency.isZero()) {
+                Thread.sleep(latency.toMillis());
+            }
+
+            RateLimit rateLimit = getRateLimit(path);
+            if (rateLimit != null) {
+                httpExchange.getResponseHeaders().add("Retry-After", String.valueOf(rateLimit.retryAfter().toSeconds()));
+                respond(httpExchange, 429, "{\"message\":\"You have exceeded a secondary rate limit.\"}");
+                return;
+            }
+
+            RecordedExchange exchange = next(method, path, body);
+            if (exchange == null) {
+                unmatchedRequests.add(method + " " + path + (body != null ? " " + body : ""));
+                respond(httpExchange, 404, "{\"message\":\"Not Found\"}");
+                return;
+            }
+
+            if (exchange.headers != null) {
+                for (Map.Entry<String, List<String>> header : exchange.headers.entrySet()) {
+                    for (String value : header.getValue()) {
+                        httpExchange.getResponseHeaders().add(header.getKey(), rewriteUrls(exchange, value));
+                    }
+                }
+            }
+
+            if (isNotModified(httpExchange, exchange)) {
+                httpExchange.sendResponseHeaders(304, -1);
+                return;
+            }
+
+            respond(httpExchange, exchange.status, rewriteUrls(exchange, exchange.body));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized RecordedExchange next(String method, String path, String body) {
+        Responses responses = exactResponses.get(exactKey(method, path, body));
+        if (responses == null) {
+            responses = looseResponses.get(looseKey(method, path, body));
+        }
+        return responses != null ? responses.next() : null;
+    }
+
+    private RateLimit getRateLimit(String path) {
+        synchronized (rateLimits) {
+            for (Iterator<Map.Entry<String, RateLimit>> iterator = rateLimits.entrySet().iterator(); iterator.hasNext();) {
+                Map.Entry<String, RateLimit> rateLimit = iterator.next();
+                if (path.startsWith(rateLimit.getKey())) {
+                    if (rateLimit.getValue().remaining().decrementAndGet() <= 0) {
+                        iterator.remove();
+                    }
+                    return rateLimit.getValue();
+                }
+            }
+            return null;
+        }
+    }
+
+    private static boolean isNotModified(HttpExchange httpExchange, RecordedExchange exchange) {
+        if (exchange.status != 200 || exchange.headers == null) {
+            return false;
+        }
+        Map<String, List<String>> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        headers.putAll(exchange.headers);
+
+        String ifNoneMatch = httpExchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null && headers.containsKey("ETag")) {
+            return ifNoneMatch.equals(headers.get("ETag").get(0));
+        }
+        String ifModifiedSince = httpExchange.getRequestHeaders().getFirst("If-Modified-Since");
+        return ifModifiedSince != null && headers.containsKey("Last-Modified")
+                && ifModifiedSince.equals(headers.get("Last-Modified").get(0));
+    }
+
+    private String rewriteUrls(RecordedExchange exchange, String value) {
+        if (value == null || exchange.apiUrl == null) {
+            return value;
+        }
+        return value.replace(exchange.apiUrl, url);
+    }
+
+    private static void respond(HttpExchange httpExchange, int status, String body) throws IOException {
+        byte[] bytes = body != null ? body.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        httpExchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream outputStream = httpExchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        }
+    }
+
+    private static String exactKey(String method, String path, String body) {
+        return method + " " + path + (body != null ? " " + canonical(body) : "");
+    }
+
+    private static String looseKey(String method, String path, String body) {
+        JsonNode json = body != null ? parse(body) : null;
+        String graphQLQuery = json != null ? json.path("query").asText(null) : null;
+        return method + " " + path + (graphQLQuery != null ? " " + graphQLQuery : "");
+    }
+
+    /**
+     * The order of the fields of a JSON body is not significant.
+     */
+    private static String canonical(String body) {
+        JsonNode node = parse(body);
+        if (node == null) {
+            return body;
+        }
+        try {
+            return OBJECT_MAPPER.writeValueAsString(OBJECT_MAPPER.treeToValue(node, Object.class));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static JsonNode parse(String body) {
+        try {
+            return OBJECT_MAPPER.readTree(body);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static class Responses {
+
+        private final List<RecordedExchange> exchanges = new ArrayList<>();
+        private int next;
+
+        private void add(RecordedExchange exchange) {
+            exchanges.add(exchange);
+        }
+
+        private RecordedExchange next() {
+            RecordedExchange exchange = exchanges.get(Math.min(next, exchanges.size() - 1));
+            next++;
+            return exchange;
+        }
+    }
+
+    private record RateLimit(AtomicInteger remaining, Duration retryAfter) {
+    }
+}
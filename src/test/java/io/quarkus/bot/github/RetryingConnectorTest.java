@@ -0,0 +1,128 @@
+package io.quarkus.bot.github;
+
+import static io.quarkus.bot.github.FakeGitHubConnector.request;
+import static io.quarkus.bot.github.FakeGitHubConnector.response;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.kohsuke.github.connector.GitHubConnector;
+import org.kohsuke.github.connector.GitHubConnectorRequest;
+import org.kohsuke.github.connector.GitHubConnectorResponse;
+
+public class RetryingConnectorTest {
+
+    private static final String URL = "https://api.github.com/repos/quarkusio/quarkus/check-runs";
+
+    private final List<Long> sleeps = new ArrayList<>();
+
+    @Test
+    void testTransientErrors() throws IOException {
+        FakeGitHubConnector fakeConnector = statusCodes(Map.of(), 502, 503, 200);
+
+        try (GitHubConnectorResponse response = retrying(fakeConnector, Duration.ofMinutes(1)).send(get())) {
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        assertThat(fakeConnector.calls()).isEqualTo(3);
+        assertThat(sleeps).hasSize(2);
+        // jittered exponential backoff
+        assertThat(sleeps.get(0)).isBetween(500L, 1_000L);
+        assertThat(sleeps.get(1)).isBetween(1_000L, 2_000L);
+
+        // we don't know if a POST has been processed
+        fakeConnector = statusCodes(Map.of(), 502, 200);
+        try (GitHubConnectorResponse response = retrying(fakeConnector, Duration.ofMinutes(1)).send(post())) {
+            assertThat(response.statusCode()).isEqualTo(502);
+        }
+        assertThat(fakeConnector.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void testConnectionErrors() throws IOException {
+        FakeGitHubConnector fakeConnector = statusCodes(Map.of(), -1, 200);
+        try (GitHubConnectorResponse response = retrying(fakeConnector, Duration.ofMinutes(1)).send(get())) {
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+
+        FakeGitHubConnector failingPostConnector = statusCodes(Map.of(), -1, 200);
+        assertThatThrownBy(() -> retrying(failingPostConnector, Duration.ofMinutes(1)).send(post()))
+                .isInstanceOf(IOException.class);
+        assertThat(failingPostConnector.calls()).isEqualTo(1);
+    }
+
+    @Test
+    void testRateLimits() throws IOException {
+        // secondary rate limit, the request has not been processed so even a POST is retried
+        FakeGitHubConnector fakeConnector = statusCodes(Map.of("Retry-After", List.of("3")), 403, 200);
+        try (GitHubConnectorResponse response = retrying(fakeConnector, Duration.ofMinutes(1)).send(post())) {
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        assertThat(sleeps).containsExactly(3_000L);
+
+        // primary rate limit
+        sleeps.clear();
+        fakeConnector = statusCodes(Map.of("X-RateLimit-Remaining", List.of("0"),
+                "X-RateLimit-Reset", List.of(String.valueOf(System.currentTimeMillis() / 1000 + 10))), 403, 200);
+        try (GitHubConnectorResponse response = retrying(fakeConnector, Duration.ofMinutes(1)).send(get())) {
+            assertThat(response.statusCode()).isEqualTo(200);
+        }
+        assertThat(sleeps).hasSize(1);
+        assertThat(sleeps.get(0)).isBetween(9_000L, 12_000L);
+
+        // a 403 which is not a rate limit
+        sleeps.clear();
+        fakeConnector = statusCodes(Map.of(), 403, 200);
+        try (GitHubConnectorResponse response = retrying(fakeConnector, Duration.ofMinutes(1)).send(get())) {
+            assertThat(response.statusCode()).isEqualTo(403);
+        }
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    void testBudget() throws IOException {
+        FakeGitHubConnector fakeConnector = statusCodes(Map.of("Retry-After", List.of("3")), 429, 429, 200);
+        RetryingConnector connector = retrying(fakeConnector, Duration.ofSeconds(5));
+
+        // the second retry would exceed the budget
+        try (GitHubConnectorResponse response = connector.send(get())) {
+            assertThat(response.statusCode()).isEqualTo(429);
+        }
+        assertThat(sleeps).containsExactly(3_000L);
+        assertThat(connector.getRemainingBudgetMillis()).isEqualTo(2_000L);
+    }
+
+    private RetryingConnector retrying(GitHubConnector delegate, Duration budget) {
+        return new RetryingConnector(delegate, budget, 5, Duration.ofSeconds(1), Duration.ofSeconds(30), sleeps::add);
+    }
+
+    private static GitHubConnectorRequest get() {
+        return request("GET", URL);
+    }
+
+    private static GitHubConnectorRequest post() {
+        return request("POST", URL);
+    }
+
+    /**
+     * Answers with the given status codes in order, -1 being a connection error.
+     */
+    private static FakeGitHubConnector statusCodes(Map<String, List<String>> errorHeaders, Integer... statusCodes) {
+        Deque<Integer> remainingStatusCodes = new ArrayDeque<>(List.of(statusCodes));
+
+        return new FakeGitHubConnector(request -> {
+            int statusCode = remainingStatusCodes.pop();
+            if (statusCode < 0) {
+                throw new IOException("Connection reset");
+            }
+            return response(request, statusCode, statusCode == 200 ? Map.of() : errorHeaders, new byte[0]);
+        });
+    }
+}
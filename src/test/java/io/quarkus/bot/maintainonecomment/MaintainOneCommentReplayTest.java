@@ -0,0 +1,124 @@
+package io.quarkus.bot.maintainonecomment;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.github.RecordingConnector.RecordedExchange;
+import io.quarkus.bot.github.ReplayServer;
+import io.quarkus.bot.metrics.ActionMetrics;
+
+/**
+ * Runs the action end to end against a recording of the GitHub API: the maintained comment is on the second page of the
+ * comments of the pull request.
+ * <p>
+ * The recording has been captured with the {@code github-record-file} input.
+ */
+public class MaintainOneCommentReplayTest {
+
+    private static final String RECORDING = "replay/maintain-one-comment.jsonl";
+
+    @Test
+    void testPagination() throws IOException {
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING)) {
+            List<String> messages = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(server.requests()).containsExactly(
+                    "GET /repos/quarkusio/quarkus",
+                    "GET /repos/quarkusio/quarkus/pulls/123",
+                    "GET /repos/quarkusio/quarkus/issues/123/comments?per_page=100",
+                    "GET /repositories/139914932/issues/123/comments?per_page=100&page=2",
+                    "PATCH /repos/quarkusio/quarkus/issues/comments/1120");
+            assertThat(messages).contains("setOutput: comment-id")
+                    .noneMatch(m -> m.startsWith("error") || m.startsWith("warning"));
+        }
+    }
+
+    @Test
+    void testLatency() throws IOException {
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING).withLatency(Duration.ofMillis(300))) {
+            long start = System.nanoTime();
+            run(server);
+            Duration wallTime = Duration.ofNanos(System.nanoTime() - start);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            // the pages are fetched lazily, one after the other, so the latency adds up
+            assertThat(server.requests()).hasSize(5);
+            assertThat(wallTime).isGreaterThanOrEqualTo(Duration.ofMillis(5 * 300));
+        }
+    }
+
+    @Test
+    void testRecordingCanBeReplayed(@TempDir Path directory) throws IOException {
+        Path recordFile = directory.resolve("recording.jsonl");
+        List<String> requests;
+        try (ReplayServer server = ReplayServer.startFromResource(RECORDING)) {
+            run(server, Map.of("github-record-file", recordFile.toString()));
+            requests = server.requests();
+        }
+
+        List<RecordedExchange> exchanges;
+        try (InputStream recording = Files.newInputStream(recordFile)) {
+            exchanges = ReplayServer.read(recording);
+        }
+        assertThat(exchanges).hasSize(requests.size());
+
+        try (ReplayServer server = ReplayServer.start(exchanges)) {
+            List<String> messages = run(server);
+
+            assertThat(server.unmatchedRequests()).isEmpty();
+            assertThat(server.requests()).isEqualTo(requests);
+            assertThat(messages).contains("setOutput: comment-id")
+                    .noneMatch(m -> m.startsWith("error") || m.startsWith("warning"));
+        }
+    }
+
+    private static List<String> run(ReplayServer server) {
+        return run(server, Map.of());
+    }
+
+    private static List<String> run(ReplayServer server, Map<String, String> additionalInputs) {
+        ObjectMapper objectMapper = new ObjectMapper();
+        ActionMetrics actionMetrics = new ActionMetrics();
+
+        MaintainOneCommentAction action = new MaintainOneCommentAction();
+        action.objectMapper = objectMapper;
+        action.actionMetrics = actionMetrics;
+        action.gitHubClientFactory = ReplayServer.clientFactory(objectMapper, actionMetrics);
+
+        List<String> messages = Collections.synchronizedList(new ArrayList<>());
+        try {
+            Map<String, String> inputs = new HashMap<>(additionalInputs);
+            inputs.put("github-token", "replayed");
+            inputs.put("action", "maintain-one-comment");
+            inputs.put("pr-number", "123");
+            inputs.put("body-marker", "<!-- Quarkus-Bot/test-report -->");
+            inputs.put("body", "<!-- Quarkus-Bot/test-report -->\nNew test report\n");
+            action.maintainOneComment(server.context("quarkusio/quarkus"), recording(messages), inputs(inputs));
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return messages;
+    }
+
+    private static Inputs inputs(Map<String, String> inputs) {
+        return () -> inputs;
+    }
+}
@@ -0,0 +1,83 @@
+package io.quarkus.bot.maintainonecomment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class MaintainedCommentPartsTest {
+
+    private static final String BODY_MARKER = "<!-- Quarkus-Bot/test-report -->";
+
+    @Test
+    void testSmallBody() {
+        List<String> parts = MaintainedCommentParts.split("Hello", BODY_MARKER, MaintainedCommentParts.MAX_COMMENT_LENGTH);
+
+        assertThat(parts).containsExactly("Hello\n\n" + BODY_MARKER);
+        assertThat(MaintainedCommentParts.isPart(parts.get(0))).isFalse();
+        assertThat(MaintainedCommentParts.getPartIndex(parts.get(0))).isEqualTo(1);
+    }
+
+    @Test
+    void testLargeBody() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 1_000; i++) {
+            body.append("Line ").append(i).append(" of the report\n");
+        }
+
+        List<String> parts = MaintainedCommentParts.split(body.toString(), BODY_MARKER, 5_000);
+
+        assertThat(parts).hasSizeGreaterThan(1);
+        StringBuilder reassembled = new StringBuilder();
+        for (int i = 0; i < parts.size(); i++) {
+            String part = parts.get(i);
+            assertThat(part.length()).isLessThanOrEqualTo(5_000 - 200);
+            assertThat(part).contains(BODY_MARKER);
+            assertThat(MaintainedCommentParts.isPart(part)).isTrue();
+            assertThat(MaintainedCommentParts.getPartIndex(part)).isEqualTo(i + 1);
+
+            String content = part.substring(0, part.indexOf("\n\n" + BODY_MARKER));
+            // lines are not split
+            assertThat(content).endsWith(" of the report\n");
+            reassembled.append(content);
+        }
+        assertThat(reassembled).hasToString(body.toString());
+    }
+
+    @Test
+    void testCodeBlocksAreReopened() {
+        StringBuilder body = new StringBuilder("Failures:\n```java\n");
+        for (int i = 0; i < 500; i++) {
+            body.append("    at io.quarkus.Test.test(Test.java:").append(i).append(")\n");
+        }
+        body.append("```\n");
+
+        List<String> parts = MaintainedCommentParts.split(body.toString(), BODY_MARKER, 5_000);
+
+        assertThat(parts).hasSizeGreaterThan(2);
+        for (int i = 0; i < parts.size(); i++) {
+            String content = parts.get(i).substring(0, parts.get(i).indexOf("\n\n" + BODY_MARKER));
+            if (i > 0) {
+                assertThat(content).startsWith("```java\n");
+            }
+            assertThat(content.stripTrailing()).endsWith("```");
+        }
+    }
+
+    @Test
+    void testLongLine() {
+        String body = "😀".repeat(10_000);
+
+        List<String> parts = MaintainedCommentParts.split(body, BODY_MARKER, 5_000);
+
+        StringBuilder reassembled = new StringBuilder();
+        for (String part : parts) {
+            String content = part.substring(0, part.indexOf("\n\n" + BODY_MARKER));
+            // surrogate pairs are not split
+            assertThat(Character.isHighSurrogate(content.charAt(content.length() - 1))).isFalse();
+            reassembled.append(content);
+        }
+        assertThat(reassembled).hasToString(body);
+    }
+}
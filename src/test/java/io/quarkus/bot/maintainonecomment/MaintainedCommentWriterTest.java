@@ -0,0 +1,252 @@
+package io.quarkus.bot.maintainonecomment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+
+import io.quarkus.bot.github.CommentHash;
+import io.quarkus.bot.maintainonecomment.MaintainOneCommentAction.MaintainedCommentState;
+import io.quarkus.bot.maintainonecomment.MaintainedCommentWriter.WriteResult;
+
+public class MaintainedCommentWriterTest {
+
+    private static final String BODY_MARKER = "<!-- Quarkus-Bot/test-report -->";
+
+    @Test
+    void testWriteParts() throws IOException {
+        FakeMaintainedCommentsApi api = new FakeMaintainedCommentsApi();
+        MaintainedCommentWriter writer = new MaintainedCommentWriter(api, BODY_MARKER, false, 3);
+
+        WriteResult result = writer.write(split("a".repeat(12_000)), List.of());
+        assertThat(api.bodies()).hasSize(3);
+        assertThat(result.comment().id()).isEqualTo(1);
+        assertThat(result.writes()).isEqualTo(3);
+        assertThat(result.skippedWrites()).isZero();
+
+        // the first part is unchanged, the second is updated and the third deleted
+        result = writer.write(split("a".repeat(4_800) + "b".repeat(2_000)), api.findAll(BODY_MARKER));
+        assertThat(api.bodies()).hasSize(2);
+        assertThat(result.skipped()).isTrue();
+        assertThat(result.skippedWrites()).isEqualTo(1);
+        assertThat(api.bodies().get(1)).contains("bb");
+
+        // the body fits in one comment again
+        result = writer.write(split("c"), api.findAll(BODY_MARKER));
+        assertThat(api.bodies()).hasSize(1);
+        assertThat(api.bodies().get(0)).startsWith("c\n\n" + BODY_MARKER).doesNotContain("maintained-comment-part");
+    }
+
+    @Test
+    void testConcurrentCreation() throws IOException {
+        FakeMaintainedCommentsApi api = new FakeMaintainedCommentsApi();
+        MaintainedCommentWriter ourWriter = new MaintainedCommentWriter(api, BODY_MARKER, true, 3);
+        MaintainedCommentWriter otherWriter = new MaintainedCommentWriter(api, BODY_MARKER, true, 3);
+        List<WriteResult> otherResults = new ArrayList<>();
+        // another job writes the comment between our lookup and our creation
+        api.beforeCreate = () -> {
+            api.beforeCreate = null;
+            otherResults.add(write(otherWriter, split("Other job"), List.of()));
+        };
+
+        WriteResult result = ourWriter.write(split("Our job"), List.of());
+
+        // both jobs succeed, ours was the duplicate and the comment of the other job is kept
+        assertThat(otherResults).singleElement().satisfies(r -> assertThat(r.superseded()).isFalse());
+        assertThat(result.superseded()).isTrue();
+        assertThat(result.attempts()).isEqualTo(1);
+        assertThat(result.comment().id()).isEqualTo(1);
+        assertThat(api.bodies()).hasSize(1);
+        assertThat(api.bodies().get(0)).startsWith("Other job");
+    }
+
+    @Test
+    void testConcurrentUpdate() throws IOException {
+        FakeMaintainedCommentsApi api = new FakeMaintainedCommentsApi();
+        new MaintainedCommentWriter(api, BODY_MARKER, true, 3).write(split("Old"), List.of());
+        MaintainedCommentWriter otherWriter = new MaintainedCommentWriter(api, BODY_MARKER, true, 3);
+        List<WriteResult> otherResults = new ArrayList<>();
+        // another job updates the comment right after us
+        api.afterUpdate = comment -> {
+            api.afterUpdate = null;
+            otherResults.add(write(otherWriter, split("Other job"), api.findAll(BODY_MARKER)));
+        };
+
+        WriteResult result = new MaintainedCommentWriter(api, BODY_MARKER, true, 3).write(split("Our job"),
+                api.findAll(BODY_MARKER));
+
+        // both jobs succeed, the newer writer wins and we don't overwrite it
+        assertThat(otherResults).singleElement().satisfies(r -> assertThat(r.superseded()).isFalse());
+        assertThat(result.superseded()).isTrue();
+        assertThat(result.attempts()).isEqualTo(1);
+        assertThat(result.comment().id()).isEqualTo(1);
+        assertThat(api.bodies()).hasSize(1);
+        assertThat(api.bodies().get(0)).startsWith("Other job");
+    }
+
+    @Test
+    void testConcurrentUpdateOfAnotherPart() throws IOException {
+        FakeMaintainedCommentsApi api = new FakeMaintainedCommentsApi();
+        new MaintainedCommentWriter(api, BODY_MARKER, true, 3).write(split("a".repeat(8_000)), List.of());
+        // another job updates the second part only, we still own the first part
+        api.afterUpdate = comment -> {
+            if (comment.id == 2) {
+                api.afterUpdate = null;
+                comment.body = otherJobBody(split("b".repeat(8_000)).get(1));
+            }
+        };
+
+        WriteResult result = new MaintainedCommentWriter(api, BODY_MARKER, true, 3).write(split("c".repeat(8_000)),
+                api.findAll(BODY_MARKER));
+
+        // the comment would mix the content of both jobs, our second part is written again
+        assertThat(result.superseded()).isFalse();
+        assertThat(result.attempts()).isEqualTo(2);
+        assertThat(api.bodies()).hasSize(2).allMatch(b -> b.startsWith("ccc"));
+    }
+
+    @Test
+    void testConcurrentUpdateAttemptsAreBounded() throws IOException {
+        FakeMaintainedCommentsApi api = new FakeMaintainedCommentsApi();
+        new MaintainedCommentWriter(api, BODY_MARKER, true, 3).write(split("a".repeat(8_000)), List.of());
+        // another job keeps updating the second part right after us
+        api.afterUpdate = comment -> {
+            if (comment.id == 2) {
+                comment.body = otherJobBody(split("b".repeat(8_000)).get(1));
+            }
+        };
+
+        WriteResult result = new MaintainedCommentWriter(api, BODY_MARKER, true, 2).write(split("c".repeat(8_000)),
+                api.findAll(BODY_MARKER));
+
+        // we give up without failing
+        assertThat(result.superseded()).isTrue();
+        assertThat(result.attempts()).isEqualTo(2);
+        assertThat(api.bodies().get(1)).startsWith("bbb");
+
+        // the updates are not checked if the comment is not maintained concurrently
+        api.afterUpdate = comment -> comment.body = otherJobBody(split("Other job").get(0));
+        result = new MaintainedCommentWriter(api, BODY_MARKER, false, 3).write(split("Our job"), api.findAll(BODY_MARKER));
+        assertThat(result.attempts()).isEqualTo(1);
+        assertThat(result.superseded()).isFalse();
+        assertThat(api.bodies().get(0)).startsWith("Other job");
+    }
+
+    @Test
+    void testConcurrentDeletion() throws IOException {
+        FakeMaintainedCommentsApi api = new FakeMaintainedCommentsApi();
+        api.create("Old\n\n" + BODY_MARKER);
+        List<MaintainedCommentsApi.MaintainedComment> comments = api.findAll(BODY_MARKER);
+        // the comment is deleted after our lookup
+        api.comments.clear();
+
+        assertThatThrownBy(() -> new MaintainedCommentWriter(api, BODY_MARKER, false, 3).write(split("New"), comments))
+                .isInstanceOf(FileNotFoundException.class);
+
+        WriteResult result = new MaintainedCommentWriter(api, BODY_MARKER, true, 3).write(split("New"), comments);
+        assertThat(result.attempts()).isEqualTo(2);
+        assertThat(api.bodies()).hasSize(1);
+        assertThat(api.bodies().get(0)).startsWith("New");
+    }
+
+    private static List<String> split(String body) {
+        return MaintainedCommentParts.split(body, BODY_MARKER, 5_000);
+    }
+
+    private static String otherJobBody(String otherJobPart) {
+        return MaintainedCommentWriter.COMMENT_HASH.mark(otherJobPart, CommentHash.hash(otherJobPart));
+    }
+
+    private static WriteResult write(MaintainedCommentWriter writer, List<String> parts,
+            List<MaintainedCommentsApi.MaintainedComment> comments) {
+        try {
+            return writer.write(parts, comments);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static class FakeMaintainedCommentsApi implements MaintainedCommentsApi {
+
+        private final List<FakeComment> comments = new ArrayList<>();
+        private long nextId = 1;
+        private Runnable beforeCreate;
+        private Consumer<FakeComment> afterUpdate;
+
+        @Override
+        public Optional<MaintainedComment> find(String bodyMarker, Optional<MaintainedCommentState> commentState) {
+            return findAll(bodyMarker).stream().findFirst();
+        }
+
+        @Override
+        public List<MaintainedComment> findAll(String bodyMarker) {
+            return comments.stream().filter(c -> c.body.contains(bodyMarker)).map(MaintainedComment.class::cast).toList();
+        }
+
+        @Override
+        public MaintainedComment create(String body) {
+            if (beforeCreate != null) {
+                beforeCreate.run();
+            }
+            FakeComment comment = new FakeComment(nextId++, body);
+            comments.add(comment);
+            return comment;
+        }
+
+        private List<String> bodies() {
+            return comments.stream().map(c -> c.body).toList();
+        }
+
+        private class FakeComment implements MaintainedComment {
+
+            private final long id;
+            private String body;
+
+            private FakeComment(long id, String body) {
+                this.id = id;
+                this.body = body;
+            }
+
+            @Override
+            public long id() {
+                return id;
+            }
+
+            @Override
+            public String nodeId() {
+                return "IC_" + id;
+            }
+
+            @Override
+            public String body() {
+                return body;
+            }
+
+            @Override
+            public void update(String body) throws IOException {
+                if (!comments.contains(this)) {
+                    throw new FileNotFoundException("Comment " + id + " not found");
+                }
+                this.body = body;
+                if (afterUpdate != null) {
+                    afterUpdate.accept(this);
+                }
+            }
+
+            @Override
+            public void delete() throws IOException {
+                if (!comments.remove(this)) {
+                    throw new FileNotFoundException("Comment " + id + " not found");
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package io.quarkus.bot.maintainonecomment;
+
+import static io.quarkus.bot.github.RecordingCommands.recording;
+import static io.quarkus.bot.github.ReplayServer.exchange;
+import static io.quarkus.bot.github.ReplayServer.graphQLExchange;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.quarkiverse.githubaction.Context;
+import io.quarkiverse.githubaction.Inputs;
+import io.quarkus.bot.github.GitHubClientFactory;
+import io.quarkus.bot.github.ReplayServer;
+import io.quarkus.bot.maintainonecomment.MaintainedCommentsApi.MaintainedComment;
+import io.quarkus.bot.metrics.ActionMetrics;
+
+/**
+ * Both backends must agree on the comment to maintain when there are duplicates: the oldest one, which is also the one kept
+ * by {@link MaintainedCommentWriter}.
+ */
+public class MaintainedCommentsApiTest {
+
+    private static final String BODY_MARKER = "<!-- Quarkus-Bot/test-report -->";
+    private static final String REPOSITORY = "quarkusio/quarkus";
+    private static final int PR_NUMBER = 123;
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final Inputs INPUTS = () -> Map.of("github-token", "replayed");
+
+    @Test
+    void testRestDuplicates() throws IOException {
+        try (ReplayServer server = ReplayServer.start(List.of(
+                exchange("GET", "/repos/quarkusio/quarkus", null, """
+                        {"id":139914932,"name":"quarkus","full_name":"quarkusio/quarkus","owner":{"login":"quarkusio"}}"""),
+                exchange("GET", "/repos/quarkusio/quarkus/pulls/123", null, """
+                        {"id":1850000000,"number":123,"state":"open"}"""),
+                exchange("GET", "/repos/quarkusio/quarkus/issues/123/comments?per_page=100", null, """
+                        [
+                          {"id":1101,"node_id":"IC_1101","body":"Looks good"},
+                          {"id":1102,"node_id":"IC_1102","body":"Oldest\\n\\n<!-- Quarkus-Bot/test-report -->"},
+                          {"id":1103,"node_id":"IC_1103","body":"Duplicate\\n\\n<!-- Quarkus-Bot/test-report -->"}
+                        ]""")))) {
+            Context context = server.context(REPOSITORY);
+            MaintainedCommentsApi api = new RestMaintainedCommentsApi(
+                    clientFactory().create(context, recording(new ArrayList<>()), INPUTS)
+                            .getRepository(REPOSITORY).getPullRequest(PR_NUMBER));
+
+            assertKeepsOldest(api);
+            assertThat(server.unmatchedRequests()).isEmpty();
+        }
+    }
+
+    @Test
+    void testGraphQLDuplicates() throws IOException {
+        try (ReplayServer server = ReplayServer.start(List.of(
+                graphQLExchange(GraphQLMaintainedCommentsApi.COMMENTS_QUERY, """
+                        {"data":{"repository":{"pullRequest":{"id":"PR_123","comments":{
+                          "nodes":[
+                            {"id":"IC_1101","databaseId":1101,"body":"Looks good"},
+                            {"id":"IC_1102","databaseId":1102,"body":"Oldest\\n\\n<!-- Quarkus-Bot/test-report -->"},
+                            {"id":"IC_1103","databaseId":1103,"body":"Duplicate\\n\\n<!-- Quarkus-Bot/test-report -->"}
+                          ],
+                          "pageInfo":{"hasNextPage":false,"endCursor":"Y3Vyc29yOjM="}}}}}}""")))) {
+            Context context = server.context(REPOSITORY);
+            MaintainedCommentsApi api = new GraphQLMaintainedCommentsApi(
+                    clientFactory().createGraphQL(context, recording(new ArrayList<>()), INPUTS), REPOSITORY, PR_NUMBER);
+
+            assertKeepsOldest(api);
+            assertThat(server.unmatchedRequests()).isEmpty();
+        }
+    }
+
+    private static void assertKeepsOldest(MaintainedCommentsApi api) throws IOException {
+        Optional<MaintainedComment> maintainedComment = api.find(BODY_MARKER, Optional.empty());
+        assertThat(maintainedComment).map(MaintainedComment::id).contains(1102L);
+
+        assertThat(api.findAll(BODY_MARKER)).extracting(MaintainedComment::id).containsExactly(1102L, 1103L);
+    }
+
+    private static GitHubClientFactory clientFactory() {
+        return ReplayServer.clientFactory(OBJECT_MAPPER, new ActionMetrics());
+    }
+}